@@ -1,5 +1,6 @@
 -- Database Schema for Student Portal
--- Run this script after connecting to the student_portal database
+-- The application creates and upgrades the schema itself with Flyway
+-- (src/main/resources/db/migration); this script is a readable reference.
 
 -- Create users table
 CREATE TABLE IF NOT EXISTS users (
@@ -24,7 +25,7 @@ CREATE TABLE IF NOT EXISTS projects (
     category VARCHAR(50),
     status VARCHAR(20) DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'APPROVED', 'IN_PROGRESS', 'COMPLETED', 'REJECTED')),
     student_id INTEGER REFERENCES users(id) ON DELETE CASCADE,
-    supervisor_id INTEGER REFERENCES users(id) ON DELETE SET NULL,
+    faculty_id INTEGER REFERENCES users(id) ON DELETE SET NULL,
     progress INTEGER DEFAULT 0 CHECK (progress >= 0 AND progress <= 100),
     start_date DATE,
     end_date DATE,
@@ -54,7 +55,8 @@ CREATE TABLE IF NOT EXISTS progress_updates (
     week_number INTEGER NOT NULL CHECK (week_number >= 1),
     update_description TEXT NOT NULL,
     feedback TEXT,
-    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (project_id, week_number)
 );
 
 -- Create evaluations table
@@ -66,15 +68,34 @@ CREATE TABLE IF NOT EXISTS evaluations (
     timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Create documents table
+CREATE TABLE IF NOT EXISTS documents (
+    id SERIAL PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    description TEXT,
+    file_path VARCHAR(255) NOT NULL,
+    file_name VARCHAR(255),
+    file_size BIGINT,
+    file_type VARCHAR(255),
+    sha256 VARCHAR(64),
+    content_encoding VARCHAR(16),
+    supervisor_id INTEGER NOT NULL REFERENCES users(id),
+    student_id INTEGER REFERENCES users(id),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
 CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
 CREATE INDEX IF NOT EXISTS idx_users_role ON users(role);
 CREATE INDEX IF NOT EXISTS idx_projects_student_id ON projects(student_id);
-CREATE INDEX IF NOT EXISTS idx_projects_supervisor_id ON projects(supervisor_id);
+CREATE INDEX IF NOT EXISTS idx_projects_faculty_status ON projects(faculty_id, status);
 CREATE INDEX IF NOT EXISTS idx_projects_status ON projects(status);
 CREATE INDEX IF NOT EXISTS idx_feedback_project_id ON feedback(project_id);
 CREATE INDEX IF NOT EXISTS idx_feedback_faculty_id ON feedback(faculty_id);
-CREATE INDEX IF NOT EXISTS idx_progress_updates_project_id ON progress_updates(project_id);
 CREATE INDEX IF NOT EXISTS idx_progress_updates_week_number ON progress_updates(week_number);
-CREATE INDEX IF NOT EXISTS idx_evaluations_project_id ON evaluations(project_id); 
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_evaluations_project_timestamp ON evaluations(project_id, timestamp DESC);
+CREATE INDEX IF NOT EXISTS idx_documents_supervisor_created ON documents(supervisor_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_documents_student_created ON documents(student_id, created_at DESC, id DESC);
+ 
\ No newline at end of file
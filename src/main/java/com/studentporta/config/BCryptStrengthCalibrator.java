@@ -0,0 +1,76 @@
+package com.studentporta.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Startup benchmark that measures BCrypt verification latency for increasing
+ * cost factors on the current hardware and logs the highest cost whose p99
+ * stays under the target. Only runs when security.bcrypt.calibrate.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "security.bcrypt.calibrate.enabled", havingValue = "true")
+public class BCryptStrengthCalibrator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+
+    private static final int MIN_STRENGTH = 8;
+    private static final int MAX_STRENGTH = 16;
+
+    @Value("${security.bcrypt.calibrate.target-p99-ms:250}")
+    private long targetP99Ms;
+
+    @Value("${security.bcrypt.calibrate.samples:50}")
+    private int samples;
+
+    @Value("${security.bcrypt.strength:10}")
+    private int configuredStrength;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int recommended = -1;
+
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            double p99 = measureP99Millis(strength);
+            log.info("BCrypt strength {}: p99 verification {} ms", strength, String.format("%.1f", p99));
+            if (p99 > targetP99Ms) {
+                break;
+            }
+            recommended = strength;
+        }
+
+        if (recommended < 0) {
+            log.warn("No BCrypt strength >= {} verifies within {} ms on this host", MIN_STRENGTH, targetP99Ms);
+        } else {
+            log.info("Recommended security.bcrypt.strength={} for a {} ms p99 target (configured: {})",
+                    recommended, targetP99Ms, configuredStrength);
+        }
+    }
+
+    private double measureP99Millis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String raw = "calibration-password";
+        String hash = encoder.encode(raw);
+
+        // One warm-up round so JIT compilation does not skew the first samples
+        encoder.matches(raw, hash);
+
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.matches(raw, hash);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        int index = (int) Math.ceil(samples * 0.99) - 1;
+        return nanos[Math.max(0, index)] / 1_000_000.0;
+    }
+}
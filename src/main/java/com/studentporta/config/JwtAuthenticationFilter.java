@@ -1,12 +1,17 @@
 package com.studentporta.config;
 
+import com.studentporta.entity.Role;
+import com.studentporta.service.TokenRevocationService;
 import com.studentporta.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,6 +20,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -25,6 +31,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Value("${jwt.stateless-auth:true}")
+    private boolean statelessAuth;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -32,18 +47,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = parseJwt(request);
             logger.debug("JWT token: " + (jwt != null ? "present" : "null"));
             
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
-                String username = jwtUtils.extractUsername(jwt);
-                String role = jwtUtils.extractRole(jwt);
+            Claims claims = jwt != null ? verify(jwt) : null;
+
+            if (claims != null && tokenRevocationService.isRevoked(claims)) {
+                logger.debug("JWT has been revoked");
+                claims = null;
+            }
+
+            if (claims != null) {
+                String username = claims.getSubject();
+                String role = claims.get("role", String.class);
                 logger.debug("Extracted username: " + username);
                 logger.debug("Extracted role: " + role);
                 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userService.loadUserByUsername(username);
-                    logger.debug("User authorities: " + userDetails.getAuthorities());
-                    
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                    UsernamePasswordAuthenticationToken authentication = statelessAuth
+                            ? buildFromClaims(claims, username, role)
+                            : null;
+
+                    if (authentication == null) {
+                        // Legacy tokens without a uid claim, or stateless mode switched off
+                        UserDetails userDetails = userService.loadUserByUsername(username);
+                        logger.debug("User authorities: " + userDetails.getAuthorities());
+                        authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
+                    }
+
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     logger.debug("Authentication set for user: " + username);
@@ -59,6 +88,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private Claims verify(String jwt) {
+        Claims claims = tokenCache.get(jwt);
+        if (claims == null) {
+            claims = jwtUtils.parseToken(jwt).orElse(null);
+            if (claims != null) {
+                tokenCache.put(jwt, claims);
+            }
+        }
+        return claims;
+    }
+
+    private UsernamePasswordAuthenticationToken buildFromClaims(Claims claims, String username, String role) {
+        Long userId = claims.get("uid", Long.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+
+        Role parsedRole;
+        try {
+            parsedRole = Role.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        JwtPrincipal principal = new JwtPrincipal(userId, username, parsedRole, claims.get("ver", Integer.class));
+        return new UsernamePasswordAuthenticationToken(
+                principal, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + parsedRole.name())));
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,40 @@
+package com.studentporta.config;
+
+import com.studentporta.entity.Role;
+
+import java.security.Principal;
+
+/**
+ * Authenticated user rebuilt from verified JWT claims, so the request path
+ * does not need to load the {@link com.studentporta.entity.User} row.
+ */
+public class JwtPrincipal implements Principal {
+
+    private final Long userId;
+    private final String username;
+    private final Role role;
+    private final Integer tokenVersion;
+
+    public JwtPrincipal(Long userId, String username, Role role, Integer tokenVersion) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getUserId() { return userId; }
+
+    public String getUsername() { return username; }
+
+    public Role getRole() { return role; }
+
+    public Integer getTokenVersion() { return tokenVersion; }
+
+    @Override
+    public String getName() { return username; }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal{userId=" + userId + ", username='" + username + "', role=" + role + "}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.studentporta.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes one access line for a sample of requests (every server error is
+ * always logged) and turns on SQL logging for a single request when the
+ * X-Debug-Sql header is sent and logging.sql-debug-header.enabled is true.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+    public static final String SQL_DEBUG_HEADER = "X-Debug-Sql";
+
+    private final AtomicLong requestCounter = new AtomicLong();
+
+    @Value("${logging.request.sample-every:100}")
+    private long sampleEvery;
+
+    @Value("${logging.sql-debug-header.enabled:false}")
+    private boolean sqlDebugHeaderEnabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean sqlDebug = sqlDebugHeaderEnabled && "true".equalsIgnoreCase(request.getHeader(SQL_DEBUG_HEADER));
+        if (sqlDebug) {
+            MDC.put(SqlDebugTurboFilter.MDC_KEY, "true");
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (sqlDebug) {
+                MDC.remove(SqlDebugTurboFilter.MDC_KEY);
+            }
+
+            int status = response.getStatus();
+            boolean sampled = sampleEvery > 0 && requestCounter.incrementAndGet() % sampleEvery == 0;
+            if (status >= 500 || sampled) {
+                long durationMs = (System.nanoTime() - start) / 1_000_000;
+                log.info("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), status, durationMs);
+            }
+        }
+    }
+}
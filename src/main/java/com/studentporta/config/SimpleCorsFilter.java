@@ -1,56 +1,152 @@
 package com.studentporta.config;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * The only CORS layer of the application. Runs ahead of the Spring Security
+ * chain so preflight requests are answered without authentication, and all
+ * header values are computed once per allowed origin at startup.
+ */
 @Component
-@Order(1)
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class SimpleCorsFilter implements Filter {
 
+    private static final Logger log = LoggerFactory.getLogger(SimpleCorsFilter.class);
+
+    @Value("${cors.allowed-origins:http://localhost:5173,http://localhost:5174}")
+    private List<String> allowedOrigins;
+
+    @Value("${cors.allowed-methods:GET, POST, PUT, DELETE, OPTIONS, PATCH}")
+    private String allowedMethods;
+
+    @Value("${cors.allowed-headers:Origin, Content-Type, Accept, Authorization, X-Requested-With, Range, If-Range, If-None-Match, If-Modified-Since, X-Content-SHA256}")
+    private String allowedHeaders;
+
+    @Value("${cors.exposed-headers:Content-Disposition, Retry-After, X-Total-Count, X-Total-Pages, X-Next-Cursor, ETag, Content-Range, Accept-Ranges}")
+    private String exposedHeaders;
+
+    @Value("${cors.allow-credentials:true}")
+    private boolean allowCredentials;
+
+    @Value("${cors.max-age:86400}")
+    private long maxAge;
+
+    private final Map<String, CorsHeaders> headersByOrigin = new HashMap<>();
+    private boolean allowAnyOrigin;
+
+    @PostConstruct
+    public void init() {
+        for (String origin : allowedOrigins) {
+            String trimmed = origin.trim();
+            if ("*".equals(trimmed)) {
+                allowAnyOrigin = true;
+            } else if (!trimmed.isEmpty()) {
+                headersByOrigin.put(trimmed, buildHeaders(trimmed));
+            }
+        }
+        log.debug("CORS Filter initialized for origins {} (any origin: {})", headersByOrigin.keySet(), allowAnyOrigin);
+    }
+
     @Override
     public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
             throws IOException, ServletException {
-        
+
         HttpServletRequest request = (HttpServletRequest) req;
         HttpServletResponse response = (HttpServletResponse) res;
-        
+
         String origin = request.getHeader("Origin");
-        String method = request.getMethod();
-        
-        // Log the request for debugging
-        System.out.println("CORS Filter: " + method + " request from origin: " + origin + " to: " + request.getRequestURI());
-        
-        // Set CORS headers for all responses
-        response.setHeader("Access-Control-Allow-Origin", "*");
-        response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, PATCH");
-        response.setHeader("Access-Control-Allow-Headers", "Origin, Content-Type, Accept, Authorization, X-Requested-With");
-        response.setHeader("Access-Control-Allow-Credentials", "true");
-        response.setHeader("Access-Control-Max-Age", "3600");
-        
-        // Handle OPTIONS preflight requests
-        if ("OPTIONS".equalsIgnoreCase(method)) {
-            System.out.println("CORS Filter: Handling OPTIONS preflight request");
-            response.setStatus(HttpServletResponse.SC_OK);
-            response.getWriter().flush();
+        if (origin == null) {
+            // Same-origin or non-browser request
+            chain.doFilter(req, res);
             return;
         }
-        
-        // Continue with the request
+
+        CorsHeaders headers = headersByOrigin.get(origin);
+        if (headers == null && allowAnyOrigin) {
+            // Not cached on purpose: the set of arbitrary origins is unbounded
+            headers = buildHeaders(origin);
+        }
+
+        boolean preflight = "OPTIONS".equalsIgnoreCase(request.getMethod())
+                && request.getHeader("Access-Control-Request-Method") != null;
+
+        if (headers == null) {
+            if (preflight) {
+                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                return;
+            }
+            // The browser will block the response since no CORS headers are sent
+            chain.doFilter(req, res);
+            return;
+        }
+
+        if (preflight) {
+            headers.writePreflight(response);
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return;
+        }
+
+        headers.writeActual(response);
         chain.doFilter(req, res);
     }
 
-    @Override
-    public void init(FilterConfig filterConfig) throws ServletException {
-        System.out.println("CORS Filter initialized");
+    private CorsHeaders buildHeaders(String origin) {
+        return new CorsHeaders(origin, allowCredentials ? "true" : null, allowedMethods, allowedHeaders,
+                exposedHeaders.isBlank() ? null : exposedHeaders, String.valueOf(maxAge));
     }
 
-    @Override
-    public void destroy() {
-        System.out.println("CORS Filter destroyed");
+    private static final class CorsHeaders {
+        private final String origin;
+        private final String credentials;
+        private final String methods;
+        private final String headers;
+        private final String exposed;
+        private final String maxAge;
+
+        private CorsHeaders(String origin, String credentials, String methods, String headers,
+                            String exposed, String maxAge) {
+            this.origin = origin;
+            this.credentials = credentials;
+            this.methods = methods;
+            this.headers = headers;
+            this.exposed = exposed;
+            this.maxAge = maxAge;
+        }
+
+        private void writeActual(HttpServletResponse response) {
+            writeCommon(response);
+            if (exposed != null) {
+                response.setHeader("Access-Control-Expose-Headers", exposed);
+            }
+        }
+
+        private void writePreflight(HttpServletResponse response) {
+            writeCommon(response);
+            response.setHeader("Access-Control-Allow-Methods", methods);
+            response.setHeader("Access-Control-Allow-Headers", headers);
+            response.setHeader("Access-Control-Max-Age", maxAge);
+        }
+
+        private void writeCommon(HttpServletResponse response) {
+            response.setHeader("Access-Control-Allow-Origin", origin);
+            response.addHeader("Vary", "Origin");
+            if (credentials != null) {
+                response.setHeader("Access-Control-Allow-Credentials", credentials);
+            }
+        }
     }
-} 
\ No newline at end of file
+}
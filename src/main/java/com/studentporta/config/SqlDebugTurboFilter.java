@@ -0,0 +1,26 @@
+package com.studentporta.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets Hibernate SQL statements through for requests that asked for them
+ * (see {@link RequestLoggingFilter}), while the SQL loggers stay off for
+ * everyone else. Registered in logback-spring.xml.
+ */
+public class SqlDebugTurboFilter extends TurboFilter {
+
+    public static final String MDC_KEY = "sqlDebug";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (logger.getName().startsWith("org.hibernate.SQL") && MDC.get(MDC_KEY) != null) {
+            return FilterReply.ACCEPT;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,131 @@
+package com.studentporta.config;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded cache of tokens that already passed signature verification.
+ * Keys are SHA-256 digests of the raw token so the bearer string itself is
+ * never held in memory, and every entry expires together with its token.
+ * Expired entries are dropped by a periodic sweep; when the cache is full, a
+ * tenth of it is evicted at once, so eviction costs amortized O(1) per put.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    public Claims get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims;
+    }
+
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictBatch();
+        }
+        entries.put(digest(token), new Entry(claims, expiration.getTime()));
+    }
+
+    public void invalidate(String token) {
+        entries.remove(digest(token));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.cache.sweep-interval-ms:60000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    // Arbitrary victims: a token that gets evicted is simply verified again. One thread evicts at a time,
+    // the others insert regardless, so the cache may briefly exceed maxSize by the number of concurrent puts.
+    private void evictBatch() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int toRemove = Math.max(1, maxSize / 10) + entries.size() - maxSize;
+            Iterator<String> keys = entries.keySet().iterator();
+            while (toRemove-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private Entry(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.studentporta.controller;
 
+import com.studentporta.config.VerifiedTokenCache;
 import com.studentporta.dto.UserDTO;
 import com.studentporta.dto.ProjectDTO;
 import com.studentporta.entity.Role;
+import com.studentporta.service.PasswordHashingService;
+import com.studentporta.service.TokenRevocationService;
+import com.studentporta.service.DashboardStatsService;
+import com.studentporta.service.BlobStoreService;
+import com.studentporta.service.DocumentPreviewService;
+import com.studentporta.service.DocumentStorageMigrationService;
+import com.studentporta.service.DocumentStorageReconciler;
 import com.studentporta.service.UserService;
 import com.studentporta.service.ProjectService;
 import com.studentporta.service.ProgressUpdateService;
 import com.studentporta.service.EvaluationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +27,6 @@ import java.util.HashMap;
 
 @RestController
 @RequestMapping("/api/admin")
-@CrossOrigin(origins = "*")
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
@@ -34,11 +42,40 @@ public class AdminController {
     @Autowired
     private EvaluationService evaluationService;
 
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private DocumentStorageMigrationService storageMigrationService;
+
+    @Autowired
+    private DocumentStorageReconciler storageReconciler;
+
+    @Autowired
+    private DocumentPreviewService documentPreviewService;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
     // User Management
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserDTO>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return KeysetResponses.ok(userService.getUsersPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/users/students")
@@ -73,6 +110,16 @@ public class AdminController {
         }
     }
 
+    @PostMapping("/users/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable Long id) {
+        try {
+            tokenRevocationService.revokeAllForUser(id);
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("/users/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         try {
@@ -85,9 +132,14 @@ public class AdminController {
 
     // Project Management
     @GetMapping("/projects")
-    public ResponseEntity<List<ProjectDTO>> getAllProjects() {
-        List<ProjectDTO> projects = projectService.getAllProjects();
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<List<ProjectDTO>> getAllProjects(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return KeysetResponses.ok(projectService.getProjectsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/projects/pending")
@@ -119,24 +171,8 @@ public class AdminController {
     // Progress Monitoring
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
         try {
-            // Get various statistics
-            List<UserDTO> students = userService.getAllStudents();
-            List<UserDTO> faculty = userService.getAllFaculty();
-            List<ProjectDTO> allProjects = projectService.getAllProjects();
-            List<ProjectDTO> pendingProjects = projectService.getProjectsByStatus(com.studentporta.entity.ProjectStatus.PENDING);
-            List<ProjectDTO> completedProjects = projectService.getProjectsByStatus(com.studentporta.entity.ProjectStatus.COMPLETED);
-
-            stats.put("totalStudents", students.size());
-            stats.put("totalFaculty", faculty.size());
-            stats.put("totalProjects", allProjects.size());
-            stats.put("pendingProjects", pendingProjects.size());
-            stats.put("completedProjects", completedProjects.size());
-            stats.put("completionRate", allProjects.isEmpty() ? 0 : (double) completedProjects.size() / allProjects.size() * 100);
-
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(dashboardStatsService.getDashboardStats());
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -159,6 +195,52 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("tokenCache", verifiedTokenCache.getStats());
+        metrics.put("passwordHashing", passwordHashingService.getStats());
+        metrics.put("tokenRevocation", tokenRevocationService.getStats());
+        metrics.put("storageMigration", storageMigrationService.getStats());
+        metrics.put("storageReconciliation", storageReconciler.getStats());
+        metrics.put("documentPreviews", documentPreviewService.getStats());
+        metrics.put("blobStore", blobStoreService.getStats());
+        return ResponseEntity.ok(metrics);
+    }
+
+    // Document storage migration (flat upload directory -> sharded blob store)
+    @PostMapping("/documents/storage-migration")
+    public ResponseEntity<Map<String, Object>> startStorageMigration() {
+        if (!storageMigrationService.start()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(storageMigrationService.getStats());
+        }
+        return ResponseEntity.accepted().body(storageMigrationService.getStats());
+    }
+
+    @GetMapping("/documents/storage-migration")
+    public ResponseEntity<Map<String, Object>> getStorageMigration() {
+        return ResponseEntity.ok(storageMigrationService.getStats());
+    }
+
+    @DeleteMapping("/documents/storage-migration")
+    public ResponseEntity<Map<String, Object>> stopStorageMigration() {
+        storageMigrationService.stop();
+        return ResponseEntity.accepted().body(storageMigrationService.getStats());
+    }
+
+    @PostMapping("/documents/storage-reconciliation")
+    public ResponseEntity<Map<String, Object>> startStorageReconciliation() {
+        if (!storageReconciler.start()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(storageReconciler.getStats());
+        }
+        return ResponseEntity.accepted().body(storageReconciler.getStats());
+    }
+
+    @GetMapping("/documents/storage-reconciliation")
+    public ResponseEntity<Map<String, Object>> getStorageReconciliation() {
+        return ResponseEntity.ok(storageReconciler.getStats());
+    }
+
     // Deadline Management
     @PutMapping("/projects/{projectId}/deadline")
     public ResponseEntity<ProjectDTO> setProjectDeadline(@PathVariable Long projectId, @RequestBody DeadlineRequest request) {
@@ -4,27 +4,33 @@ import com.studentporta.config.JwtUtils;
 import com.studentporta.dto.UserDTO;
 import com.studentporta.entity.Role;
 import com.studentporta.entity.User;
+import com.studentporta.service.PasswordHashingBusyException;
+import com.studentporta.service.PasswordHashingService;
+import com.studentporta.service.TokenRevocationService;
 import com.studentporta.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/auth")
-@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
 public class AuthController {
     
     @Autowired
     private UserService userService;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
         if (userService.existsByUsername(registerRequest.getUsername())) {
@@ -64,6 +70,8 @@ public class AuthController {
         try {
             userService.createUser(user);
             return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
+        } catch (PasswordHashingBusyException e) {
+            return serverBusy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: " + e.getMessage()));
@@ -77,13 +85,22 @@ public class AuthController {
                     .orElseThrow(() -> new RuntimeException("Invalid credentials"));
             
             // Verify password
-            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+            if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
                 return ResponseEntity.badRequest()
                         .body(new MessageResponse("Error: Invalid credentials!"));
             }
+
+            // Re-hash with the current encoder settings while the raw password is at hand
+            if (passwordHashingService.needsUpgrade(user.getPassword())) {
+                try {
+                    userService.upgradePasswordHash(user, loginRequest.getPassword());
+                } catch (PasswordHashingBusyException e) {
+                    // Not worth failing the login over; the next login will try again
+                }
+            }
             
             // Generate JWT token with role information
-            String token = jwtUtils.generateToken(user.getUsername(), user.getRole());
+            String token = jwtUtils.generateToken(user);
             
                     JwtResponse response = new JwtResponse(token, 
                                               user.getId(), 
@@ -93,12 +110,36 @@ public class AuthController {
                                               user.getFirstName(),
                                               user.getLastName());
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return serverBusy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: Invalid credentials!"));
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: Missing bearer token!"));
+        }
+
+        return jwtUtils.parseToken(authHeader.substring(7))
+                .<ResponseEntity<?>>map(claims -> {
+                    tokenRevocationService.revoke(claims);
+                    return ResponseEntity.ok(new MessageResponse("Logged out successfully!"));
+                })
+                .orElseGet(() -> ResponseEntity.badRequest()
+                        .body(new MessageResponse("Error: Invalid token!")));
+    }
+
+    private ResponseEntity<MessageResponse> serverBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new MessageResponse("Error: Server is busy, please try again shortly"));
+    }
+
     @GetMapping("/test")
     public ResponseEntity<String> testConnection() {
         return ResponseEntity.ok("Backend is connected! CORS is working.");
@@ -1,55 +1,199 @@
 package com.studentporta.controller;
 
+import com.studentporta.dto.ChunkedUploadRequest;
+import com.studentporta.dto.ChunkedUploadStatus;
 import com.studentporta.dto.DocumentDTO;
+import com.studentporta.dto.DocumentPreviewDTO;
+import com.studentporta.respository.DocumentFileView;
+import com.studentporta.service.BlobStoreService;
+import com.studentporta.service.ChunkedUploadService;
+import com.studentporta.service.ContentHashMismatchException;
+import com.studentporta.service.DocumentPreviewService;
 import com.studentporta.service.DocumentService;
+import com.studentporta.service.DocumentStorage;
+import com.studentporta.service.UploadLimits;
+import com.studentporta.service.UploadTooLargeException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/documents")
-@CrossOrigin(origins = "*")
 public class DocumentController {
 
     @Autowired
     private DocumentService documentService;
 
+    @Autowired
+    private FileDownloadWriter fileDownloadWriter;
+
+    @Autowired
+    private DocumentStorage documentStorage;
+
+    @Autowired
+    private DocumentPreviewService documentPreviewService;
+
+    @Autowired
+    private UploadLimits uploadLimits;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
     @PostMapping("/upload")
     public ResponseEntity<DocumentDTO> uploadDocument(
             @RequestParam("file") MultipartFile file,
             @RequestParam("title") String title,
             @RequestParam("description") String description,
             @RequestParam("supervisorId") Long supervisorId,
-            @RequestParam(value = "studentId", required = false) Long studentId) {
+            @RequestParam(value = "studentId", required = false) Long studentId,
+            Authentication authentication) {
         
         try {
-            DocumentDTO document = documentService.uploadDocument(file, title, description, supervisorId, studentId);
+            long maxBytes = uploadLimits.maxBytesFor(authentication.getAuthorities());
+            DocumentDTO document = documentService.uploadDocument(file, title, description, supervisorId, studentId, maxBytes);
             return ResponseEntity.ok(document);
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Raw request body (no multipart); metadata travels in the query string
+    @PostMapping("/upload/stream")
+    public ResponseEntity<DocumentDTO> uploadDocumentStream(
+            @RequestParam("fileName") String fileName,
+            @RequestParam("title") String title,
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam("supervisorId") Long supervisorId,
+            @RequestParam(value = "studentId", required = false) Long studentId,
+            @RequestHeader(value = "X-Content-SHA256", required = false) String contentSha256,
+            HttpServletRequest request,
+            Authentication authentication) {
+
+        long maxBytes = uploadLimits.maxBytesFor(authentication.getAuthorities());
+        if (request.getContentLengthLong() > maxBytes) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        try {
+            DocumentDTO document = documentService.uploadDocumentStream(request.getInputStream(), fileName,
+                    request.getContentType(), title, description, supervisorId, studentId, maxBytes, contentSha256);
+            return ResponseEntity.ok(document);
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (ContentHashMismatchException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Resumable uploads: start a session, PUT chunks (in any order, in parallel), then complete
+    @PostMapping("/uploads")
+    public ResponseEntity<ChunkedUploadStatus> startChunkedUpload(
+            @Valid @RequestBody ChunkedUploadRequest uploadRequest,
+            Authentication authentication) {
+        try {
+            long maxBytes = uploadLimits.maxBytesFor(authentication.getAuthorities());
+            return ResponseEntity.ok(chunkedUploadService.start(uploadRequest, authentication.getName(), maxBytes));
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (IllegalStateException e) {
+            // The user already has the maximum number of uploads open; finish or abort one first
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/uploads/{uploadId}/chunks/{index}")
+    public ResponseEntity<ChunkedUploadStatus> uploadChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            HttpServletRequest request,
+            Authentication authentication) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.writeChunk(uploadId, authentication.getName(), index,
+                    request.getInputStream()));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<ChunkedUploadStatus> getChunkedUploadStatus(@PathVariable String uploadId,
+                                                                      Authentication authentication) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.status(uploadId, authentication.getName()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<DocumentDTO> completeChunkedUpload(@PathVariable String uploadId,
+                                                             Authentication authentication) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.complete(uploadId, authentication.getName()));
+        } catch (IllegalStateException e) {
+            // Some chunks are still missing; GET the session to see which
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (IOException e) {
             return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> abortChunkedUpload(@PathVariable String uploadId, Authentication authentication) {
+        try {
+            chunkedUploadService.abort(uploadId, authentication.getName());
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/supervisor/{supervisorId}")
-    public ResponseEntity<List<DocumentDTO>> getDocumentsBySupervisor(@PathVariable Long supervisorId) {
-        List<DocumentDTO> documents = documentService.getDocumentsBySupervisor(supervisorId);
-        return ResponseEntity.ok(documents);
+    public ResponseEntity<List<DocumentDTO>> getDocumentsBySupervisor(
+            @PathVariable Long supervisorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return KeysetResponses.ok(documentService.getDocumentsBySupervisorPage(supervisorId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<DocumentDTO>> getDocumentsForStudent(@PathVariable Long studentId) {
-        List<DocumentDTO> documents = documentService.getDocumentsForStudent(studentId);
-        return ResponseEntity.ok(documents);
+    public ResponseEntity<List<DocumentDTO>> getDocumentsForStudent(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return KeysetResponses.ok(documentService.getDocumentsForStudentPage(studentId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/supervisor/{supervisorId}/general")
@@ -77,24 +221,51 @@ public class DocumentController {
     }
 
     @GetMapping("/download/{documentId}")
-    public ResponseEntity<Resource> downloadDocument(@PathVariable Long documentId) {
-        try {
-            DocumentDTO document = documentService.getDocumentById(documentId);
-            Path filePath = Paths.get(document.getFilePath());
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, 
-                                "attachment; filename=\"" + document.getFileName() + "\"")
-                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
+    public void downloadDocument(@PathVariable Long documentId, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        Optional<DocumentFileView> document = documentService.getDocumentFile(documentId);
+        if (document.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        DocumentFileView file = document.get();
+        String entityId = String.valueOf(documentId);
+        boolean found = documentService.isStoredInBlobStore(file)
+                ? fileDownloadWriter.write(documentStorage, BlobStoreService.keyFor(file.getSha256()),
+                        file.getContentEncoding(), file.getFileSize(), entityId, file.getFileName(), request, response)
+                : fileDownloadWriter.write(Paths.get(file.getFilePath()), entityId, file.getFileName(), request, response);
+        if (!found) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    @GetMapping("/{documentId}/preview")
+    public ResponseEntity<DocumentPreviewDTO> getDocumentPreview(@PathVariable Long documentId) {
+        Optional<DocumentPreviewDTO> preview = documentService.getDocumentFile(documentId)
+                .filter(file -> file.getSha256() != null)
+                .flatMap(file -> documentPreviewService.getPreview(file.getSha256()));
+        return preview.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{documentId}/thumbnail")
+    public ResponseEntity<byte[]> getDocumentThumbnail(@PathVariable Long documentId, WebRequest request) {
+        Optional<DocumentFileView> file = documentService.getDocumentFile(documentId)
+                .filter(view -> view.getSha256() != null);
+        if (file.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        // Thumbnails never change for a given file, so the hash is a stable validator
+        String etag = "\"" + file.get().getSha256() + "-thumbnail\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return documentPreviewService.getThumbnail(file.get().getSha256())
+                .map(png -> ResponseEntity.ok()
+                        .contentType(MediaType.IMAGE_PNG)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate())
+                        .body(png))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{documentId}")
@@ -2,6 +2,8 @@ package com.studentporta.controller;
 
 import com.studentporta.dto.EvaluationDTO;
 import com.studentporta.service.EvaluationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,9 +14,10 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/evaluations")
-@CrossOrigin(origins = "*")
 public class EvaluationController {
 
+    private static final Logger log = LoggerFactory.getLogger(EvaluationController.class);
+
     @Autowired
     private EvaluationService evaluationService;
 
@@ -56,18 +59,11 @@ public class EvaluationController {
     @PreAuthorize("hasAnyRole('STUDENT', 'FACULTY', 'SUPERVISOR', 'ADMIN')")
     public ResponseEntity<List<EvaluationDTO>> getEvaluationsByProjectId(@PathVariable Long projectId) {
         try {
-            System.out.println("=== EVALUATION REQUEST DEBUG ===");
-            System.out.println("Fetching evaluations for project: " + projectId);
-            System.out.println("Current authentication: " + org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication());
-            System.out.println("User authorities: " + org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-            System.out.println("Is authenticated: " + org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication().isAuthenticated());
             List<EvaluationDTO> evaluations = evaluationService.getEvaluationsByProjectId(projectId);
-            System.out.println("Found " + evaluations.size() + " evaluations for project: " + projectId);
-            System.out.println("=== END DEBUG ===");
+            log.debug("Found {} evaluations for project {}", evaluations.size(), projectId);
             return ResponseEntity.ok(evaluations);
         } catch (Exception e) {
-            System.err.println("Error fetching evaluations for project " + projectId + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching evaluations for project {}", projectId, e);
             return ResponseEntity.badRequest().build();
         }
     }
@@ -0,0 +1,59 @@
+package com.studentporta.controller;
+
+import com.studentporta.service.ExportFormat;
+import com.studentporta.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@RestController
+@RequestMapping("/api/admin/export")
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/projects")
+    public ResponseEntity<StreamingResponseBody> exportProjects(@RequestParam(defaultValue = "ndjson") String format) {
+        return export("projects", format, (exportFormat, out) -> exportService.exportProjects(exportFormat, out));
+    }
+
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        return export("users", format, (exportFormat, out) -> exportService.exportUsers(exportFormat, out));
+    }
+
+    @GetMapping("/feedback")
+    public ResponseEntity<StreamingResponseBody> exportFeedback(@RequestParam(defaultValue = "ndjson") String format) {
+        return export("feedback", format, (exportFormat, out) -> exportService.exportFeedback(exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, String format, Exporter exporter) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> exporter.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface Exporter {
+        void export(ExportFormat format, OutputStream out) throws IOException;
+    }
+}
@@ -9,16 +9,21 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
-@RequestMapping("/feedback")
+@RequestMapping("/api/feedback")
 public class FeedbackController {
     
     @Autowired
     private FeedbackService feedbackService;
 
     @GetMapping
-    public ResponseEntity<List<FeedbackDTO>> getAllFeedback() {
-        List<FeedbackDTO> feedback = feedbackService.getAllFeedback();
-        return ResponseEntity.ok(feedback);
+    public ResponseEntity<List<FeedbackDTO>> getAllFeedback(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return KeysetResponses.ok(feedbackService.getFeedbackPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
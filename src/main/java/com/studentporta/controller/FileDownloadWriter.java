@@ -0,0 +1,312 @@
+package com.studentporta.controller;
+
+import com.studentporta.service.BlobStoreService;
+import com.studentporta.service.DocumentStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves a file with conditional GET (ETag / Last-Modified) and single byte
+ * range support. Large local bodies are handed to Tomcat's sendfile when the
+ * connector offers it, otherwise copied with {@link FileChannel#transferTo};
+ * objects in a remote {@link DocumentStorage} are streamed range by range.
+ */
+@Component
+public class FileDownloadWriter {
+
+    // Request attributes understood by Tomcat's NIO/NIO2 connectors
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Value("${documents.download.sendfile-enabled:true}")
+    private boolean sendfileEnabled;
+
+    // Below this size a plain copy is cheaper than setting up sendfile
+    @Value("${documents.download.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    /**
+     * @return false if the file does not exist, in which case nothing was written
+     */
+    public boolean write(Path file, String entityId, String downloadName,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (!attributes.isRegularFile()) {
+            return false;
+        }
+        respond(attributes.size(), attributes.lastModifiedTime().toMillis(), entityId, downloadName,
+                request, response, (start, count) -> sendFile(file, start, count, request, response));
+        return true;
+    }
+
+    /**
+     * Serves the object stored under {@code key}. Backends that keep objects on
+     * local disk take the sendfile path; others are read only for the requested
+     * range and copied to the response as they arrive.
+     *
+     * @return false if no such object exists, in which case nothing was written
+     */
+    public boolean write(DocumentStorage storage, String key, String entityId, String downloadName,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> localPath = storage.localPath(key);
+        if (localPath.isPresent()) {
+            return write(localPath.get(), entityId, downloadName, request, response);
+        }
+        Optional<DocumentStorage.ObjectInfo> info = storage.stat(key);
+        if (info.isEmpty()) {
+            return false;
+        }
+        respond(info.get().size(), info.get().lastModifiedMillis(), entityId, downloadName, request, response,
+                (start, count) -> copyRange(storage, key, start, count, response));
+        return true;
+    }
+
+    /**
+     * Serves an object stored compressed with {@code codec}. Clients that accept
+     * gzip get the stored bytes unchanged with {@code Content-Encoding: gzip};
+     * other clients, and all range requests, get the original content
+     * decompressed as it is streamed. gzip has no random access, so a range
+     * starting at offset {@code n} inflates and discards {@code n} bytes first.
+     * The blob store only compresses files up to
+     * {@code documents.compression.max-bytes}, which bounds that cost; larger
+     * files are stored as uploaded and ranges on them are served directly.
+     *
+     * @return false if no such object exists, in which case nothing was written
+     */
+    public boolean write(DocumentStorage storage, String key, String codec, long originalLength, String entityId,
+                         String downloadName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (codec == null) {
+            return write(storage, key, entityId, downloadName, request, response);
+        }
+        Optional<DocumentStorage.ObjectInfo> info = storage.stat(key);
+        if (info.isEmpty()) {
+            return false;
+        }
+        long storedLength = info.get().size();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (BlobStoreService.CODEC_GZIP.equals(codec) && acceptsGzip(request) && request.getHeader(HttpHeaders.RANGE) == null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            Optional<Path> localPath = storage.localPath(key);
+            respond(storedLength, info.get().lastModifiedMillis(), entityId, downloadName, request, response,
+                    (start, count) -> {
+                        if (localPath.isPresent()) {
+                            sendFile(localPath.get(), start, count, request, response);
+                        } else {
+                            copyRange(storage, key, start, count, response);
+                        }
+                    });
+            return true;
+        }
+
+        // The length differs from the stored one, so the ETag differs from the gzip variant's as well
+        respond(originalLength, info.get().lastModifiedMillis(), entityId, downloadName, request, response,
+                (start, count) -> {
+                    try (InputStream in = BlobStoreService.decode(storage.open(key, 0, storedLength), codec)) {
+                        // O(start), bounded by the compression size cap; see above
+                        in.skipNBytes(start);
+                        OutputStream out = response.getOutputStream();
+                        byte[] buffer = new byte[64 * 1024];
+                        long remaining = count;
+                        while (remaining > 0) {
+                            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                            if (read < 0) {
+                                break;
+                            }
+                            out.write(buffer, 0, read);
+                            remaining -= read;
+                        }
+                        out.flush();
+                    }
+                });
+        return true;
+    }
+
+    private void respond(long length, long lastModified, String entityId, String downloadName,
+                         HttpServletRequest request, HttpServletResponse response, BodyWriter body) throws IOException {
+        String etag = "\"" + entityId + "-" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && rangeApplies(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multi-range requests are answered with the whole file, which RFC 9110 allows
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                if (length == 0 || range.getRangeStart(length) >= length) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(downloadName, StandardCharsets.UTF_8).build().toString());
+
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+        body.write(start, count);
+    }
+
+    private void sendFile(Path file, long start, long count,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (sendfileEnabled && count >= sendfileMinBytes
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            out.flush();
+        }
+    }
+
+    private static void copyRange(DocumentStorage storage, String key, long start, long count,
+                                  HttpServletResponse response) throws IOException {
+        try (InputStream in = storage.open(key, start, count)) {
+            OutputStream out = response.getOutputStream();
+            in.transferTo(out);
+            out.flush();
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String[] parts = candidate.trim().split(";");
+                String coding = parts[0].trim();
+                if (!coding.equalsIgnoreCase("gzip") && !coding.equalsIgnoreCase("x-gzip") && !coding.equals("*")) {
+                    continue;
+                }
+                boolean refused = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            refused = Double.parseDouble(parameter.substring(2)) <= 0;
+                        } catch (NumberFormatException e) {
+                            refused = true;
+                        }
+                    }
+                }
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // If-None-Match takes precedence over If-Modified-Since and uses weak comparison
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || stripWeak(tag).equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && lastModified / 1000 == date / 1000;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(long start, long count) throws IOException;
+    }
+}
@@ -0,0 +1,25 @@
+package com.studentporta.controller;
+
+import com.studentporta.dto.KeysetPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * List endpoints keep returning a plain JSON array; the continuation token
+ * for the next page travels in the X-Next-Cursor header.
+ */
+final class KeysetResponses {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetResponses() {}
+
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
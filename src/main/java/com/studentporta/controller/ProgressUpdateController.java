@@ -12,7 +12,6 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/progress-updates")
-@CrossOrigin(origins = "*")
 public class ProgressUpdateController {
 
     @Autowired
@@ -54,10 +53,12 @@ public class ProgressUpdateController {
 
     @GetMapping("/project/{projectId}")
     @PreAuthorize("hasAnyRole('STUDENT', 'FACULTY', 'SUPERVISOR', 'ADMIN')")
-    public ResponseEntity<List<ProgressUpdateDTO>> getProgressUpdatesByProjectId(@PathVariable Long projectId) {
+    public ResponseEntity<List<ProgressUpdateDTO>> getProgressUpdatesByProjectId(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<ProgressUpdateDTO> updates = progressUpdateService.getProgressUpdatesByProjectId(projectId);
-            return ResponseEntity.ok(updates);
+            return KeysetResponses.ok(progressUpdateService.getProgressUpdatesPage(projectId, cursor, limit));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -1,9 +1,16 @@
 package com.studentporta.controller;
 
 import com.studentporta.dto.ProjectDTO;
+import com.studentporta.entity.Project;
 import com.studentporta.entity.ProjectStatus;
 import com.studentporta.service.ProjectService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -13,7 +20,6 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/projects")
-@CrossOrigin(origins = "*")
 public class ProjectController {
     
     @Autowired
@@ -21,9 +27,14 @@ public class ProjectController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('STUDENT', 'FACULTY', 'SUPERVISOR', 'ADMIN')")
-    public ResponseEntity<List<ProjectDTO>> getAllProjects() {
-        List<ProjectDTO> projects = projectService.getAllProjects();
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<List<ProjectDTO>> getAllProjects(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return KeysetResponses.ok(projectService.getProjectsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -150,9 +161,26 @@ public class ProjectController {
 
     @GetMapping("/supervisor/{supervisorId}/students")
     @PreAuthorize("hasAnyRole('SUPERVISOR', 'ADMIN')")
-    public ResponseEntity<List<ProjectDTO>> getProjectsBySupervisorStudents(@PathVariable Long supervisorId) {
-        List<ProjectDTO> projects = projectService.getProjectsBySupervisorStudents(supervisorId);
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<List<ProjectDTO>> getProjectsBySupervisorStudents(
+            @PathVariable Long supervisorId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @PageableDefault(size = 100, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        // Clients that send no paging parameters get the full list, as before paging existed
+        Pageable request = page == null && size == null ? Pageable.unpaged(pageable.getSort()) : pageable;
+        try {
+            // Checked here: once inside the repository a bad property surfaces as a generic data access error
+            pageable.getSort().forEach(order -> PropertyPath.from(order.getProperty(), Project.class));
+            Page<ProjectDTO> projects = projectService.getProjectsBySupervisorStudents(supervisorId, request);
+            // The body stays a plain array for existing clients; paging info travels in headers
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(projects.getTotalElements()))
+                    .header("X-Total-Pages", String.valueOf(projects.getTotalPages()))
+                    .body(projects.getContent());
+        } catch (PropertyReferenceException e) {
+            // Unknown sort property
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/my-students")
@@ -0,0 +1,51 @@
+package com.studentporta.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public class ChunkedUploadRequest {
+    @NotBlank
+    private String fileName;
+
+    @NotNull
+    @Positive
+    private Long totalSize;
+
+    private String contentType;
+
+    @NotBlank
+    @Size(max = 200)
+    private String title;
+
+    @Size(max = 1000)
+    private String description;
+
+    @NotNull
+    private Long supervisorId;
+
+    private Long studentId;
+
+    // Getters and Setters
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public Long getTotalSize() { return totalSize; }
+    public void setTotalSize(Long totalSize) { this.totalSize = totalSize; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Long getSupervisorId() { return supervisorId; }
+    public void setSupervisorId(Long supervisorId) { this.supervisorId = supervisorId; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+}
@@ -0,0 +1,32 @@
+package com.studentporta.dto;
+
+import java.util.List;
+
+public class ChunkedUploadStatus {
+    private String uploadId;
+    private long totalSize;
+    private long chunkSize;
+    private int chunkCount;
+    private int receivedChunks;
+    private long receivedBytes;
+    private List<Integer> missingChunks;
+
+    public ChunkedUploadStatus(String uploadId, long totalSize, long chunkSize, int chunkCount,
+                               int receivedChunks, long receivedBytes, List<Integer> missingChunks) {
+        this.uploadId = uploadId;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.chunkCount = chunkCount;
+        this.receivedChunks = receivedChunks;
+        this.receivedBytes = receivedBytes;
+        this.missingChunks = missingChunks;
+    }
+
+    public String getUploadId() { return uploadId; }
+    public long getTotalSize() { return totalSize; }
+    public long getChunkSize() { return chunkSize; }
+    public int getChunkCount() { return chunkCount; }
+    public int getReceivedChunks() { return receivedChunks; }
+    public long getReceivedBytes() { return receivedBytes; }
+    public List<Integer> getMissingChunks() { return missingChunks; }
+}
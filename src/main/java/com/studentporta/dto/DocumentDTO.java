@@ -19,6 +19,7 @@ public class DocumentDTO {
     private String fileName;
     private Long fileSize;
     private String fileType;
+    private String sha256;
     
     private Long supervisorId;
     private String supervisorName;
@@ -38,6 +39,26 @@ public class DocumentDTO {
         this.supervisorId = supervisorId;
     }
 
+    // Used by JPQL constructor expressions that select straight into the DTO
+    public DocumentDTO(Long id, String title, String description, String filePath, String fileName, Long fileSize,
+                       String fileType, String sha256, Long supervisorId, String supervisorName, Long studentId,
+                       String studentName, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.filePath = filePath;
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.fileType = fileType;
+        this.sha256 = sha256;
+        this.supervisorId = supervisorId;
+        this.supervisorName = supervisorName;
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -75,6 +96,9 @@ public class DocumentDTO {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 } 
\ No newline at end of file
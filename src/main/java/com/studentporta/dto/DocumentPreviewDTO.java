@@ -0,0 +1,28 @@
+package com.studentporta.dto;
+
+import com.studentporta.entity.PreviewStatus;
+
+import java.time.LocalDateTime;
+
+public class DocumentPreviewDTO {
+    private PreviewStatus status;
+    private Integer pageCount;
+    private String textSnippet;
+    private boolean thumbnailAvailable;
+    private LocalDateTime updatedAt;
+
+    public DocumentPreviewDTO(PreviewStatus status, Integer pageCount, String textSnippet,
+                              boolean thumbnailAvailable, LocalDateTime updatedAt) {
+        this.status = status;
+        this.pageCount = pageCount;
+        this.textSnippet = textSnippet;
+        this.thumbnailAvailable = thumbnailAvailable;
+        this.updatedAt = updatedAt;
+    }
+
+    public PreviewStatus getStatus() { return status; }
+    public Integer getPageCount() { return pageCount; }
+    public String getTextSnippet() { return textSnippet; }
+    public boolean isThumbnailAvailable() { return thumbnailAvailable; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,82 @@
+package com.studentporta.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position after the last row of a keyset page: the sort key of that row plus
+ * its id as a tie-breaker. Clients only ever see the opaque encoded form.
+ */
+public final class KeysetCursor {
+
+    private final String key;
+    private final Long id;
+
+    private KeysetCursor(String key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    // created_at is NOT NULL wherever it is used as a sort key (see V4__created_at_not_null.sql)
+    public static KeysetCursor of(LocalDateTime createdAt, Long id) {
+        return new KeysetCursor(Objects.requireNonNull(createdAt, "createdAt").toString(), id);
+    }
+
+    public static KeysetCursor of(Integer position, Long id) {
+        return new KeysetCursor(position.toString(), id);
+    }
+
+    public static KeysetCursor ofId(Long id) {
+        return new KeysetCursor("", id);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not issued by a createdAt-ordered list
+     */
+    public LocalDateTime getCreatedAt() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor does not belong to this list", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not issued by a position-ordered list
+     */
+    public Integer getPosition() {
+        try {
+            return Integer.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor does not belong to this list", e);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(raw.substring(0, separator), Long.valueOf(raw.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.studentporta.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class KeysetPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from a query that fetched up to {@code limit + 1} rows;
+     * the extra row only signals that another page exists.
+     */
+    public static <E, T> KeysetPage<T> of(List<E> rows, int limit, Function<E, T> mapper,
+                                          Function<E, KeysetCursor> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new KeysetPage<>(pageRows.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+
+    public List<T> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+}
@@ -9,7 +9,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+        @Index(name = "idx_documents_supervisor_created", columnList = "supervisor_id, created_at DESC, id DESC"),
+        @Index(name = "idx_documents_student_created", columnList = "student_id, created_at DESC, id DESC")
+})
 public class Document {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,6 +40,14 @@ public class Document {
     @Column(name = "file_type")
     private String fileType;
 
+    // Hex SHA-256 of the stored bytes, computed while the upload is written
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    // Codec of the stored object ("gzip"), null when stored as uploaded; fileSize is always the original size
+    @Column(name = "content_encoding", length = 16)
+    private String contentEncoding;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "supervisor_id", nullable = false)
     private User supervisor;
@@ -92,6 +103,12 @@ public class Document {
     public String getFileType() { return fileType; }
     public void setFileType(String fileType) { this.fileType = fileType; }
 
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public String getContentEncoding() { return contentEncoding; }
+    public void setContentEncoding(String contentEncoding) { this.contentEncoding = contentEncoding; }
+
     public User getSupervisor() { return supervisor; }
     public void setSupervisor(User supervisor) { this.supervisor = supervisor; }
 
@@ -0,0 +1,75 @@
+package com.studentporta.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "document_blobs")
+public class DocumentBlob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sha256", unique = true, nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "storage_key", nullable = false, length = 512)
+    private String storageKey;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    // Compression applied to the stored object ("gzip"), null when stored as uploaded
+    @Column(name = "codec", length = 16)
+    private String codec;
+
+    // Bytes actually held by the storage backend
+    @Column(name = "stored_size")
+    private Long storedSize;
+
+    // Number of documents pointing at this blob; the file goes away with the last one
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 1;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public DocumentBlob() {}
+
+    public DocumentBlob(String sha256, String storageKey, Long size, String codec, Long storedSize) {
+        this.sha256 = sha256;
+        this.storageKey = storageKey;
+        this.size = size;
+        this.codec = codec;
+        this.storedSize = storedSize;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public String getStorageKey() { return storageKey; }
+    public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
+
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+
+    public String getCodec() { return codec; }
+    public void setCodec(String codec) { this.codec = codec; }
+
+    public Long getStoredSize() { return storedSize; }
+    public void setStoredSize(Long storedSize) { this.storedSize = storedSize; }
+
+    public Integer getRefCount() { return refCount; }
+    public void setRefCount(Integer refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,89 @@
+package com.studentporta.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Derivatives of a stored file (page count, first-page thumbnail, text
+ * snippet). Keyed by the blob hash, so documents sharing a file share one
+ * preview.
+ */
+@Entity
+@Table(name = "document_previews")
+public class DocumentPreview {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sha256", unique = true, nullable = false, length = 64)
+    private String sha256;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PreviewStatus status = PreviewStatus.PENDING;
+
+    // Name and type of the first upload, used to pick an extractor
+    @Column(name = "source_name")
+    private String sourceName;
+
+    @Column(name = "source_type")
+    private String sourceType;
+
+    @Column(name = "page_count")
+    private Integer pageCount;
+
+    @Column(name = "text_snippet", length = 2000)
+    private String textSnippet;
+
+    // PNG, at most documents.preview.thumbnail-width pixels wide
+    @Column(name = "thumbnail", length = 1048576)
+    private byte[] thumbnail;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public DocumentPreview() {}
+
+    public DocumentPreview(String sha256, String sourceName, String sourceType) {
+        this.sha256 = sha256;
+        this.sourceName = sourceName;
+        this.sourceType = sourceType;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public PreviewStatus getStatus() { return status; }
+    public void setStatus(PreviewStatus status) { this.status = status; }
+
+    public String getSourceName() { return sourceName; }
+    public void setSourceName(String sourceName) { this.sourceName = sourceName; }
+
+    public String getSourceType() { return sourceType; }
+    public void setSourceType(String sourceType) { this.sourceType = sourceType; }
+
+    public Integer getPageCount() { return pageCount; }
+    public void setPageCount(Integer pageCount) { this.pageCount = pageCount; }
+
+    public String getTextSnippet() { return textSnippet; }
+    public void setTextSnippet(String textSnippet) { this.textSnippet = textSnippet; }
+
+    public byte[] getThumbnail() { return thumbnail; }
+    public void setThumbnail(byte[] thumbnail) { this.thumbnail = thumbnail; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -10,7 +10,8 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "evaluations")
+@Table(name = "evaluations", indexes =
+        @Index(name = "idx_evaluations_project_timestamp", columnList = "project_id, timestamp DESC"))
 public class Evaluation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
@@ -31,6 +32,7 @@ public class Feedback {
     @Max(5)
     private Integer rating;
     
+    @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
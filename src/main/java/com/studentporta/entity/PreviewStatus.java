@@ -0,0 +1,9 @@
+package com.studentporta.entity;
+
+public enum PreviewStatus {
+    PENDING,
+    PROCESSING,
+    READY,
+    UNSUPPORTED,
+    FAILED
+}
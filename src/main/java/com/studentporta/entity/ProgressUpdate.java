@@ -9,7 +9,8 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "progress_updates")
+@Table(name = "progress_updates", uniqueConstraints =
+        @UniqueConstraint(name = "uk_progress_updates_project_week", columnNames = {"project_id", "week_number"}))
 public class ProgressUpdate {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
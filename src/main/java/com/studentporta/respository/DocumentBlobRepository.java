@@ -0,0 +1,38 @@
+package com.studentporta.respository;
+
+import com.studentporta.entity.DocumentBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentBlobRepository extends JpaRepository<DocumentBlob, Long> {
+
+    Optional<DocumentBlob> findBySha256(String sha256);
+
+    boolean existsBySha256(String sha256);
+
+    boolean existsByStorageKey(String storageKey);
+
+    // Ordering by hash is ordering by key (ab/cd/<sha256>) without depending on the database collation
+    @Query("SELECT b FROM DocumentBlob b WHERE b.sha256 > :afterSha256 ORDER BY b.sha256")
+    List<DocumentBlob> findPageAfter(@Param("afterSha256") String afterSha256, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE DocumentBlob b SET b.refCount = b.refCount + 1 WHERE b.sha256 = :sha256")
+    int incrementRefCount(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("UPDATE DocumentBlob b SET b.refCount = b.refCount - 1 WHERE b.sha256 = :sha256 AND b.refCount > 0")
+    int decrementRefCount(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("DELETE FROM DocumentBlob b WHERE b.sha256 = :sha256 AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
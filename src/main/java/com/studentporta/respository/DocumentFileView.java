@@ -0,0 +1,18 @@
+package com.studentporta.respository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns needed to serve a document's file, without loading the
+ * supervisor and student associations.
+ */
+public interface DocumentFileView {
+    Long getId();
+    String getFilePath();
+    String getFileName();
+    Long getFileSize();
+    String getFileType();
+    String getSha256();
+    String getContentEncoding();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,53 @@
+package com.studentporta.respository;
+
+import com.studentporta.dto.DocumentPreviewDTO;
+import com.studentporta.entity.DocumentPreview;
+import com.studentporta.entity.PreviewStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentPreviewRepository extends JpaRepository<DocumentPreview, Long> {
+
+    Optional<DocumentPreview> findBySha256(String sha256);
+
+    boolean existsBySha256(String sha256);
+
+    // Metadata only; the thumbnail bytes are fetched separately
+    @Query("SELECT new com.studentporta.dto.DocumentPreviewDTO(p.status, p.pageCount, p.textSnippet, " +
+           "CASE WHEN p.thumbnail IS NULL THEN false ELSE true END, p.updatedAt) " +
+           "FROM DocumentPreview p WHERE p.sha256 = :sha256")
+    Optional<DocumentPreviewDTO> findSummaryBySha256(@Param("sha256") String sha256);
+
+    @Query("SELECT p.thumbnail FROM DocumentPreview p " +
+           "WHERE p.sha256 = :sha256 AND p.status = com.studentporta.entity.PreviewStatus.READY")
+    Optional<byte[]> findThumbnailBySha256(@Param("sha256") String sha256);
+
+    /**
+     * Lets exactly one worker take a preview: pending ones, or ones whose
+     * worker has not reported back since {@code staleBefore}.
+     */
+    @Modifying
+    @Query("UPDATE DocumentPreview p SET p.status = com.studentporta.entity.PreviewStatus.PROCESSING, " +
+           "p.updatedAt = :now WHERE p.sha256 = :sha256 " +
+           "AND (p.status = com.studentporta.entity.PreviewStatus.PENDING " +
+           "OR (p.status = com.studentporta.entity.PreviewStatus.PROCESSING AND p.updatedAt < :staleBefore))")
+    int claim(@Param("sha256") String sha256, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT p FROM DocumentPreview p WHERE p.status IN :statuses AND p.updatedAt < :before ORDER BY p.updatedAt")
+    List<DocumentPreview> findStale(@Param("statuses") List<PreviewStatus> statuses,
+                                    @Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM DocumentPreview p WHERE NOT EXISTS (SELECT b.id FROM DocumentBlob b WHERE b.sha256 = p.sha256)")
+    int deleteWithoutBlob();
+}
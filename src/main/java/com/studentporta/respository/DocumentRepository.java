@@ -1,20 +1,37 @@
 package com.studentporta.respository;
 
+import com.studentporta.dto.DocumentDTO;
 import com.studentporta.entity.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
+
+    /**
+     * A student's feed: documents addressed to the student plus the general
+     * documents (no student) of the student's supervisor, selected straight
+     * into DTOs so no entity or association is loaded.
+     */
+    String STUDENT_FEED = "SELECT new com.studentporta.dto.DocumentDTO(d.id, d.title, d.description, d.filePath, " +
+            "d.fileName, d.fileSize, d.fileType, d.sha256, sup.id, CONCAT(sup.firstName, ' ', sup.lastName), st.id, " +
+            "CASE WHEN st.id IS NULL THEN NULL ELSE CONCAT(st.firstName, ' ', st.lastName) END, " +
+            "d.createdAt, d.updatedAt) " +
+            "FROM Document d JOIN d.supervisor sup LEFT JOIN d.student st " +
+            "WHERE (st.id = :studentId OR (st.id IS NULL AND sup.id = " +
+            "(SELECT u.supervisor.id FROM User u WHERE u.id = :studentId))) ";
     
     List<Document> findBySupervisorIdOrderByCreatedAtDesc(Long supervisorId);
     
-    List<Document> findByStudentIdOrderByCreatedAtDesc(Long studentId);
-    
     List<Document> findBySupervisorIdAndStudentIdOrderByCreatedAtDesc(Long supervisorId, Long studentId);
     
     @Query("SELECT d FROM Document d WHERE d.supervisor.id = :supervisorId AND d.student IS NULL")
@@ -22,4 +39,43 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     
     @Query("SELECT d FROM Document d WHERE d.supervisor.id = :supervisorId AND d.student.id = :studentId")
     List<Document> findStudentSpecificDocuments(@Param("supervisorId") Long supervisorId, @Param("studentId") Long studentId);
+
+    @Query("SELECT d.id AS id, d.filePath AS filePath, d.fileName AS fileName, d.fileSize AS fileSize, " +
+           "d.fileType AS fileType, d.sha256 AS sha256, d.contentEncoding AS contentEncoding, " +
+           "d.updatedAt AS updatedAt FROM Document d WHERE d.id = :id")
+    Optional<DocumentFileView> findFileViewById(@Param("id") Long id);
+
+    // Documents whose file path is not their blob key (ab/cd/<sha256>), in id order
+    @Query("SELECT d.id AS id, d.filePath AS filePath, d.fileName AS fileName, d.fileSize AS fileSize, " +
+           "d.fileType AS fileType, d.sha256 AS sha256, d.contentEncoding AS contentEncoding, " +
+           "d.updatedAt AS updatedAt FROM Document d " +
+           "WHERE d.id > :afterId AND (d.sha256 IS NULL OR d.filePath <> " +
+           "CONCAT(SUBSTRING(d.sha256, 1, 2), '/', SUBSTRING(d.sha256, 3, 2), '/', d.sha256)) ORDER BY d.id")
+    List<DocumentFileView> findUnmigratedFileViewsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Compare-and-set on the old path so a concurrently deleted or re-uploaded document is left alone
+    @Modifying
+    @Query("UPDATE Document d SET d.filePath = :newPath, d.sha256 = :sha256, d.contentEncoding = :contentEncoding " +
+           "WHERE d.id = :id AND d.filePath = :oldPath")
+    int relocateFile(@Param("id") Long id, @Param("oldPath") String oldPath, @Param("newPath") String newPath,
+                     @Param("sha256") String sha256, @Param("contentEncoding") String contentEncoding);
+
+    @Query(STUDENT_FEED + "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DocumentDTO> findFirstStudentFeedPage(@Param("studentId") Long studentId, Pageable pageable);
+
+    @Query(STUDENT_FEED + "AND (d.createdAt, d.id) < (:createdAt, :id) ORDER BY d.createdAt DESC, d.id DESC")
+    List<DocumentDTO> findStudentFeedPageAfter(@Param("studentId") Long studentId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"supervisor", "student"})
+    @Query("SELECT d FROM Document d WHERE d.supervisor.id = :supervisorId ORDER BY d.createdAt DESC, d.id DESC")
+    List<Document> findFirstKeysetPageBySupervisor(@Param("supervisorId") Long supervisorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"supervisor", "student"})
+    @Query("SELECT d FROM Document d WHERE d.supervisor.id = :supervisorId AND (d.createdAt, d.id) < (:createdAt, :id) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Document> findKeysetPageBySupervisorAfter(@Param("supervisorId") Long supervisorId,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id, Pageable pageable);
 } 
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.studentporta.respository;
 
 import com.studentporta.entity.Feedback;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
@@ -24,4 +30,22 @@ public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
 
     @Query("SELECT f FROM Feedback f WHERE f.project.id = ?1")
     List<Feedback> findAllByProjectId(Long projectId);
+
+    // Feedback rows written before createdAt was populated have no timestamp,
+    // so pages are keyed on the identity column alone (it grows with insert order).
+    @EntityGraph(attributePaths = {"project", "faculty"})
+    @Query("SELECT f FROM Feedback f ORDER BY f.id DESC")
+    List<Feedback> findFirstKeysetPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"project", "faculty"})
+    @Query("SELECT f FROM Feedback f WHERE f.id < :id ORDER BY f.id DESC")
+    List<Feedback> findKeysetPageAfter(@Param("id") Long id, Pageable pageable);
+
+    // Server-side cursor for exports; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM Feedback f ORDER BY f.id")
+    Stream<Feedback> streamAllForExport();
 }
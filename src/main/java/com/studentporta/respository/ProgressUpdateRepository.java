@@ -1,6 +1,7 @@
 package com.studentporta.respository;
 
 import com.studentporta.entity.ProgressUpdate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,4 +21,12 @@ public interface ProgressUpdateRepository extends JpaRepository<ProgressUpdate,
     
     @Query("SELECT COUNT(pu) FROM ProgressUpdate pu WHERE pu.project.id = :projectId")
     Long countByProjectId(@Param("projectId") Long projectId);
+
+    @Query("SELECT pu FROM ProgressUpdate pu WHERE pu.project.id = :projectId ORDER BY pu.weekNumber ASC, pu.id ASC")
+    List<ProgressUpdate> findFirstKeysetPage(@Param("projectId") Long projectId, Pageable pageable);
+
+    @Query("SELECT pu FROM ProgressUpdate pu WHERE pu.project.id = :projectId AND (pu.weekNumber, pu.id) > (:weekNumber, :id) " +
+           "ORDER BY pu.weekNumber ASC, pu.id ASC")
+    List<ProgressUpdate> findKeysetPageAfter(@Param("projectId") Long projectId, @Param("weekNumber") Integer weekNumber,
+                                             @Param("id") Long id, Pageable pageable);
 } 
\ No newline at end of file
@@ -2,17 +2,42 @@ package com.studentporta.respository;
 
 import com.studentporta.entity.Project;
 import com.studentporta.entity.ProjectStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+
+    // The list and lookup methods below fetch student and faculty in the same
+    // statement, since every ProjectDTO needs both names.
+    @Override
+    @EntityGraph(attributePaths = {"student", "faculty"})
+    List<Project> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"student", "faculty"})
+    Optional<Project> findById(Long id);
+
+    @EntityGraph(attributePaths = {"student", "faculty"})
     List<Project> findByStudentId(Long studentId);
+
+    @EntityGraph(attributePaths = {"student", "faculty"})
     List<Project> findByFacultyId(Long facultyId);
+
+    @EntityGraph(attributePaths = {"student", "faculty"})
     List<Project> findByStatus(ProjectStatus status);
     
     @Query("SELECT p FROM Project p WHERE p.student.id = ?1")
@@ -34,4 +59,39 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     Long countByFacultyId(@Param("facultyId") Long facultyId);
     
     List<Project> findByFacultyIsNull();
+
+    @Query("SELECT p.status FROM Project p WHERE p.student.id = :userId OR p.faculty.id = :userId")
+    List<ProjectStatus> findStatusesByStudentOrFaculty(@Param("userId") Long userId);
+
+    // Rows of (dimension, bucket, total): users per role and projects per status in one round-trip
+    @Query(value = "SELECT 'ROLE' AS dimension, CAST(u.role AS VARCHAR(20)) AS bucket, COUNT(*) AS total FROM users u GROUP BY u.role " +
+                   "UNION ALL " +
+                   "SELECT 'STATUS' AS dimension, CAST(p.status AS VARCHAR(20)) AS bucket, COUNT(*) AS total FROM projects p GROUP BY p.status",
+           nativeQuery = true)
+    List<Object[]> countUsersByRoleAndProjectsByStatus();
+
+    // Projects of every student assigned to the supervisor, in one statement
+    @EntityGraph(attributePaths = {"student", "faculty"})
+    @Query(value = "SELECT p FROM Project p WHERE p.student.supervisor.id = :supervisorId",
+           countQuery = "SELECT COUNT(p) FROM Project p WHERE p.student.supervisor.id = :supervisorId")
+    Page<Project> findBySupervisorOfStudent(@Param("supervisorId") Long supervisorId, Pageable pageable);
+
+    // Keyset pages on (createdAt, id): the row comparison lets the index seek
+    // straight to the cursor, so deep pages cost the same as the first one.
+    @EntityGraph(attributePaths = {"student", "faculty"})
+    @Query("SELECT p FROM Project p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findFirstKeysetPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"student", "faculty"})
+    @Query("SELECT p FROM Project p WHERE (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Server-side cursor for exports; must be consumed inside a transaction
+    @EntityGraph(attributePaths = {"student", "faculty"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Project p ORDER BY p.id")
+    Stream<Project> streamAllForExport();
 }
@@ -2,12 +2,21 @@ package com.studentporta.respository;
 
 import com.studentporta.entity.Role;
 import com.studentporta.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -24,4 +33,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findAllStudents();
 
     List<User> findBySupervisorId(Long supervisorId);
+
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findTokenVersions();
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = "supervisor")
+    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findFirstKeysetPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = "supervisor")
+    @Query("SELECT u FROM User u WHERE (u.createdAt, u.id) < (:createdAt, :id) ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Server-side cursor for exports; must be consumed inside a transaction
+    @EntityGraph(attributePaths = "supervisor")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllForExport();
 }
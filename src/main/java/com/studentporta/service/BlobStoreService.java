@@ -0,0 +1,385 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.DocumentBlob;
+import com.studentporta.respository.DocumentBlobRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed file store for documents. Each distinct file is kept once
+ * under {@code ab/cd/<sha256>} in the configured {@link DocumentStorage} and
+ * shared by every document with the same bytes; a reference count decides
+ * when the object can be removed. Uploads are always staged on local disk.
+ * Content that compresses well is gzipped (fastest level) before it is
+ * stored, and the blob records the codec; files above a size cap are never
+ * compressed, so resuming a large download stays a plain positional read. The decision depends only on the
+ * bytes, never on the uploader's content type, so every node committing the
+ * same file writes the same object under its key.
+ */
+@Service
+public class BlobStoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStoreService.class);
+
+    public static final String CODEC_GZIP = "gzip";
+
+    @Autowired
+    private DocumentBlobRepository blobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DocumentStorage storage;
+
+    @Value("${documents.storage.staging-dir:uploads/blobs/tmp}")
+    private String stagingRoot;
+
+    @Value("${documents.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    // Head of the file trial-compressed first, so media and archives are skipped after a cheap check
+    @Value("${documents.compression.sample-bytes:65536}")
+    private int compressionSampleBytes;
+
+    @Value("${documents.compression.min-bytes:4096}")
+    private long compressionMinBytes;
+
+    // Larger files stay uncompressed: a range read on a gzipped object inflates everything before it
+    @Value("${documents.compression.max-bytes:16777216}")
+    private long compressionMaxBytes;
+
+    // The compressed copy is kept only if it is at least this much smaller
+    @Value("${documents.compression.min-savings-percent:10}")
+    private int minSavingsPercent;
+
+    private Path stagingDir;
+    private final LongAdder compressedBlobs = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    // Serializes the "last reference gone" and "first reference added" paths for a hash
+    private final Object[] stripes = new Object[64];
+
+    public BlobStoreService() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        stagingDir = Paths.get(stagingRoot);
+        Files.createDirectories(stagingDir);
+    }
+
+    /**
+     * Reads {@code in} once, hashing and counting it, and returns the blob
+     * holding those bytes with one more reference. When the caller already
+     * knows the hash and that blob exists, the bytes are verified but not
+     * written anywhere.
+     *
+     * @throws UploadTooLargeException as soon as more than {@code maxBytes} were read
+     * @throws ContentHashMismatchException if the bytes do not hash to {@code expectedSha256}
+     */
+    public DocumentBlob store(InputStream in, long maxBytes, String expectedSha256) throws IOException {
+        if (expectedSha256 != null && blobRepository.existsBySha256(expectedSha256.toLowerCase())) {
+            String sha256 = copy(in, OutputStream.nullOutputStream(), maxBytes).sha256;
+            if (!sha256.equals(expectedSha256.toLowerCase())) {
+                throw new ContentHashMismatchException();
+            }
+            DocumentBlob existing = addReference(sha256);
+            if (existing == null) {
+                throw new RuntimeException("Blob was removed during upload, retry without a declared hash");
+            }
+            return existing;
+        }
+
+        Path staged = newStagingFile();
+        try {
+            Copied copied;
+            try (OutputStream out = Files.newOutputStream(staged, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                copied = copy(in, out, maxBytes);
+            }
+            if (expectedSha256 != null && !copied.sha256.equals(expectedSha256.toLowerCase())) {
+                throw new ContentHashMismatchException();
+            }
+            return commit(staged, copied);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    /**
+     * Takes over a fully written staging file (see {@link #newStagingFile()}),
+     * hashing it in one sequential read. The file is handed to the storage
+     * backend or deleted if the same bytes are already there.
+     */
+    public DocumentBlob adopt(Path staged) throws IOException {
+        try {
+            Copied copied;
+            try (InputStream in = Files.newInputStream(staged)) {
+                copied = copy(in, OutputStream.nullOutputStream(), Long.MAX_VALUE);
+            }
+            return commit(staged, copied);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    // With local storage the staging dir sits below the storage root, so adopting a file is a rename
+    public Path newStagingFile() {
+        return stagingDir.resolve(UUID.randomUUID().toString());
+    }
+
+    public Path getStagingDir() {
+        return stagingDir;
+    }
+
+    /**
+     * Drops one reference and deletes the file when it was the last one.
+     *
+     * @return false if no blob with this hash exists (e.g. a document stored before the blob store)
+     */
+    public boolean release(String sha256) {
+        Boolean managed = transactionTemplate.execute(status -> releaseInTransaction(sha256));
+        return Boolean.TRUE.equals(managed);
+    }
+
+    /**
+     * Drops one reference as part of the caller's transaction, so the count
+     * only changes if that transaction commits. The object is deleted after
+     * the commit, and only if no row for the hash has been inserted again by
+     * then.
+     *
+     * @return false if no blob with this hash exists
+     */
+    public boolean releaseInTransaction(String sha256) {
+        DocumentBlob blob = blobRepository.findBySha256(sha256).orElse(null);
+        if (blob == null || blobRepository.decrementRefCount(sha256) == 0) {
+            return false;
+        }
+        if (blobRepository.deleteIfUnreferenced(sha256) > 0) {
+            String key = blob.getStorageKey();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteObjectIfUnused(sha256, key);
+                }
+            });
+        }
+        return true;
+    }
+
+    public static String keyFor(String sha256) {
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+    }
+
+    /**
+     * Wraps a stream of stored bytes so that it yields the original content.
+     */
+    public static InputStream decode(InputStream stored, String codec) throws IOException {
+        if (codec == null) {
+            return stored;
+        }
+        if (CODEC_GZIP.equals(codec)) {
+            return new GZIPInputStream(stored, 64 * 1024);
+        }
+        throw new IOException("Unknown codec " + codec);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("compressedBlobs", compressedBlobs.sum());
+        stats.put("bytesSavedByCompression", bytesSaved.sum());
+        return stats;
+    }
+
+    private DocumentBlob commit(Path staged, Copied copied) throws IOException {
+        // Compress outside the stripe lock; the work is only wasted if the same bytes are committed concurrently
+        Path compressed = blobRepository.existsBySha256(copied.sha256) ? null : compress(staged, copied.size);
+        try {
+            synchronized (stripeFor(copied.sha256)) {
+                DocumentBlob existing = addReference(copied.sha256);
+                if (existing != null) {
+                    return existing;
+                }
+
+                String key = keyFor(copied.sha256);
+                String codec = compressed != null ? CODEC_GZIP : null;
+                long storedSize = compressed != null ? Files.size(compressed) : copied.size;
+                storage.put(key, compressed != null ? compressed : staged);
+                try {
+                    DocumentBlob blob = transactionTemplate.execute(status ->
+                            blobRepository.save(new DocumentBlob(copied.sha256, key, copied.size, codec, storedSize)));
+                    if (codec != null) {
+                        compressedBlobs.increment();
+                        bytesSaved.add(copied.size - storedSize);
+                    }
+                    return blob;
+                } catch (DataIntegrityViolationException e) {
+                    // Another instance inserted the same blob first; the object it wrote has the same content
+                    DocumentBlob raced = addReference(copied.sha256);
+                    if (raced == null) {
+                        throw e;
+                    }
+                    return raced;
+                }
+            }
+        } finally {
+            if (compressed != null) {
+                Files.deleteIfExists(compressed);
+            }
+        }
+    }
+
+    /**
+     * @return a gzipped copy of {@code staged} in the staging area, or null if
+     *         compression does not pay off for these bytes
+     */
+    private Path compress(Path staged, long size) throws IOException {
+        if (!compressionEnabled || size < compressionMinBytes || size > compressionMaxBytes
+                || !sampleCompresses(staged)) {
+            return null;
+        }
+        Path target = newStagingFile();
+        try (InputStream in = Files.newInputStream(staged);
+             OutputStream out = new FastGzipOutputStream(
+                     Files.newOutputStream(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            in.transferTo(out);
+        }
+        if (!savesEnough(Files.size(target), size)) {
+            Files.deleteIfExists(target);
+            return null;
+        }
+        return target;
+    }
+
+    private boolean sampleCompresses(Path staged) throws IOException {
+        byte[] sample;
+        try (InputStream in = Files.newInputStream(staged)) {
+            sample = in.readNBytes(compressionSampleBytes);
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(sample);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            long compressed = 0;
+            while (!deflater.finished()) {
+                compressed += deflater.deflate(buffer);
+            }
+            return savesEnough(compressed, sample.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private boolean savesEnough(long compressedSize, long originalSize) {
+        return compressedSize * 100 <= originalSize * (100 - minSavingsPercent);
+    }
+
+    // Under the stripe lock, so a concurrent commit of the same bytes either finished (row exists) or writes afresh
+    /**
+     * Deletes an object found in storage without a blob row, unless a row for
+     * its hash exists or it was written after {@code modifiedBefore}.
+     * Both are checked under the hash's stripe lock, which {@link #commit}
+     * holds from writing an object until its row is inserted.
+     *
+     * @return true if the object was deleted
+     */
+    public boolean deleteOrphanedObject(String key, long modifiedBefore) throws IOException {
+        String sha256 = key.substring(key.lastIndexOf('/') + 1);
+        synchronized (stripeFor(sha256)) {
+            Optional<DocumentStorage.ObjectInfo> info = storage.stat(key);
+            if (info.isEmpty() || info.get().lastModifiedMillis() > modifiedBefore
+                    || blobRepository.existsBySha256(sha256) || blobRepository.existsByStorageKey(key)) {
+                return false;
+            }
+            storage.delete(key);
+            return true;
+        }
+    }
+
+    private void deleteObjectIfUnused(String sha256, String key) {
+        synchronized (stripeFor(sha256)) {
+            if (blobRepository.existsBySha256(sha256)) {
+                return;
+            }
+            try {
+                storage.delete(key);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not delete blob object {}", key, e);
+            }
+        }
+    }
+
+    private DocumentBlob addReference(String sha256) {
+        return transactionTemplate.execute(status -> blobRepository.incrementRefCount(sha256) > 0
+                ? blobRepository.findBySha256(sha256).orElse(null)
+                : null);
+    }
+
+    private Object stripeFor(String sha256) {
+        return stripes[Math.floorMod(sha256.hashCode(), stripes.length)];
+    }
+
+    private static Copied copy(InputStream in, OutputStream target, long maxBytes) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        long size = 0;
+        OutputStream out = new DigestOutputStream(target, digest);
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            size += read;
+            if (size > maxBytes) {
+                throw new UploadTooLargeException(maxBytes);
+            }
+            out.write(buffer, 0, read);
+        }
+        out.flush();
+        return new Copied(HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    private record Copied(String sha256, long size) {}
+
+    // Favours throughput over ratio: text still shrinks several-fold at level 1
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
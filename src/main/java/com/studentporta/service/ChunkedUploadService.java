@@ -0,0 +1,285 @@
+package com.studentporta.service;
+
+import com.studentporta.dto.ChunkedUploadRequest;
+import com.studentporta.dto.ChunkedUploadStatus;
+import com.studentporta.dto.DocumentDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resumable uploads in fixed-size chunks. Each session owns a preallocated
+ * staging file; chunks may arrive in any order and in parallel and are
+ * written at their offset with positional channel writes. Sessions live in
+ * memory, so an upload must finish on the node that started it; staging
+ * files no session owns are removed once they are older than the session TTL.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Value("${documents.chunked-upload.chunk-size:8388608}")
+    private long chunkSize;
+
+    @Value("${documents.chunked-upload.session-ttl-ms:86400000}")
+    private long sessionTtlMs;
+
+    @Value("${documents.chunked-upload.max-sessions-per-user:4}")
+    private int maxSessionsPerUser;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadStatus start(ChunkedUploadRequest request, String owner, long maxBytes) throws IOException {
+        if (request.getTotalSize() > maxBytes) {
+            throw new UploadTooLargeException(maxBytes);
+        }
+        documentService.validateOwners(request.getSupervisorId(), request.getStudentId());
+
+        // Each session preallocates its full size on disk, so the number open per user is capped
+        synchronized (sessions) {
+            long open = sessions.values().stream().filter(s -> s.owner.equals(owner)).count();
+            if (open >= maxSessionsPerUser) {
+                throw new IllegalStateException("Too many open uploads");
+            }
+            Path file = blobStoreService.newStagingFile();
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(request.getTotalSize());
+            }
+            Session session = new Session(UUID.randomUUID().toString(), owner, request, file, chunkSize,
+                    FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ));
+            sessions.put(session.id, session);
+            return session.status();
+        }
+    }
+
+    /**
+     * Writes chunk {@code index} at its offset. Re-sending a chunk overwrites it,
+     * so clients can simply retry failed chunks.
+     */
+    public ChunkedUploadStatus writeChunk(String uploadId, String owner, int index, InputStream body) throws IOException {
+        Session session = find(uploadId, owner);
+        if (index < 0 || index >= session.chunkCount) {
+            throw new IllegalArgumentException("Chunk index out of range");
+        }
+        long offset = index * session.chunkSize;
+        long expected = Math.min(session.chunkSize, session.totalSize - offset);
+
+        session.lock.readLock().lock();
+        try {
+            if (session.closed) {
+                throw new RuntimeException("Upload session is closed");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long written = 0;
+            int read;
+            while ((read = body.read(buffer.array(), 0, (int) Math.min(buffer.capacity(), expected - written + 1))) != -1) {
+                written += read;
+                if (written > expected) {
+                    throw new IllegalArgumentException("Chunk is larger than " + expected + " bytes");
+                }
+                buffer.limit(read).position(0);
+                long position = offset + written - read;
+                while (buffer.hasRemaining()) {
+                    position += session.channel.write(buffer, position);
+                }
+                buffer.clear();
+            }
+            if (written != expected) {
+                throw new IllegalArgumentException("Chunk " + index + " must be " + expected + " bytes, got " + written);
+            }
+            session.markReceived(index);
+        } finally {
+            session.lock.readLock().unlock();
+        }
+        return session.status();
+    }
+
+    public ChunkedUploadStatus status(String uploadId, String owner) {
+        return find(uploadId, owner).status();
+    }
+
+    public DocumentDTO complete(String uploadId, String owner) throws IOException {
+        Session session = find(uploadId, owner);
+        session.lock.writeLock().lock();
+        try {
+            if (session.closed) {
+                throw new RuntimeException("Upload session is closed");
+            }
+            List<Integer> missing = session.missing();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Missing chunks: " + missing);
+            }
+            session.channel.force(false);
+            session.closed = true;
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+
+        // The blob store consumes the file it adopts, so it gets a second link to the data; if creating
+        // the document fails, the session is reopened and the client can simply retry complete
+        Path staged = blobStoreService.newStagingFile();
+        DocumentDTO document;
+        try {
+            linkForAdoption(session.file, staged);
+            ChunkedUploadRequest request = session.request;
+            document = documentService.createDocumentFromStagedFile(staged, request.getFileName(),
+                    request.getContentType(), request.getTitle(), request.getDescription(),
+                    request.getSupervisorId(), request.getStudentId());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staged);
+            session.closed = false;
+            throw e;
+        }
+        discard(session);
+        return document;
+    }
+
+    public void abort(String uploadId, String owner) {
+        discard(find(uploadId, owner));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${documents.chunked-upload.cleanup-interval-ms:600000}")
+    public void expireStaleSessions() {
+        long cutoff = System.currentTimeMillis() - sessionTtlMs;
+        for (Session session : sessions.values()) {
+            if (session.lastActivity < cutoff) {
+                log.info("Discarding stale chunked upload {} ({} of {} chunks received)",
+                        session.id, session.status().getReceivedChunks(), session.chunkCount);
+                discard(session);
+            }
+        }
+        removeOrphanedStagingFiles(cutoff);
+    }
+
+    // Sessions live in memory only, so the preallocated files of uploads cut off by a restart belong to none of them
+    private void removeOrphanedStagingFiles(long cutoff) {
+        Set<Path> owned = sessions.values().stream().map(session -> session.file).collect(Collectors.toSet());
+        try (Stream<Path> files = Files.list(blobStoreService.getStagingDir())) {
+            files.filter(file -> !owned.contains(file)).forEach(file -> {
+                try {
+                    if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                        Files.deleteIfExists(file);
+                        log.info("Removed orphaned staging file {}", file);
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not remove staging file {}", file, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not list staging directory {}", blobStoreService.getStagingDir(), e);
+        }
+    }
+
+    private void discard(Session session) {
+        session.lock.writeLock().lock();
+        try {
+            session.closed = true;
+            sessions.remove(session.id);
+            session.channel.close();
+            Files.deleteIfExists(session.file);
+        } catch (IOException e) {
+            log.warn("Could not remove staging file {}", session.file, e);
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    private void linkForAdoption(Path file, Path link) throws IOException {
+        try {
+            Files.createLink(link, file);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(file, link);
+        }
+    }
+
+    // Unknown ids and other users' sessions look the same to the caller
+    private Session find(String uploadId, String owner) {
+        Session session = sessions.get(uploadId);
+        if (session == null || !session.owner.equals(owner)) {
+            throw new RuntimeException("Upload session not found");
+        }
+        session.lastActivity = System.currentTimeMillis();
+        return session;
+    }
+
+    private static final class Session {
+        final String id;
+        final String owner;
+        final ChunkedUploadRequest request;
+        final Path file;
+        final FileChannel channel;
+        final long totalSize;
+        final long chunkSize;
+        final int chunkCount;
+        final BitSet received;
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        long receivedBytes;
+        volatile boolean closed;
+        volatile long lastActivity = System.currentTimeMillis();
+
+        Session(String id, String owner, ChunkedUploadRequest request, Path file, long chunkSize, FileChannel channel) {
+            this.id = id;
+            this.owner = owner;
+            this.request = request;
+            this.file = file;
+            this.channel = channel;
+            this.totalSize = request.getTotalSize();
+            this.chunkSize = chunkSize;
+            this.chunkCount = (int) ((totalSize + chunkSize - 1) / chunkSize);
+            this.received = new BitSet(chunkCount);
+        }
+
+        synchronized void markReceived(int index) {
+            if (!received.get(index)) {
+                received.set(index);
+                receivedBytes += Math.min(chunkSize, totalSize - index * chunkSize);
+            }
+        }
+
+        synchronized List<Integer> missing() {
+            List<Integer> missing = new ArrayList<>();
+            for (int i = received.nextClearBit(0); i < chunkCount; i = received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            return missing;
+        }
+
+        synchronized ChunkedUploadStatus status() {
+            return new ChunkedUploadStatus(id, totalSize, chunkSize, chunkCount, received.cardinality(),
+                    receivedBytes, missing());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.studentporta.service;
+
+/**
+ * Thrown when uploaded bytes do not hash to the SHA-256 the client declared.
+ * Controllers translate it into a 422.
+ */
+public class ContentHashMismatchException extends RuntimeException {
+
+    public ContentHashMismatchException() {
+        super("Uploaded content does not match the declared SHA-256");
+    }
+}
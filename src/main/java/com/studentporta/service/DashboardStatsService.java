@@ -0,0 +1,117 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.ProjectStatus;
+import com.studentporta.entity.Role;
+import com.studentporta.respository.ProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the admin dashboard totals in memory. Counters are adjusted after
+ * each committed create/update/delete and periodically reconciled against
+ * the grouped COUNT query, which also repairs drift from bulk changes such
+ * as cascaded deletes.
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private final Map<Role, AtomicLong> usersByRole = new EnumMap<>(Role.class);
+    private final Map<ProjectStatus, AtomicLong> projectsByStatus = new EnumMap<>(ProjectStatus.class);
+    private volatile boolean initialized;
+
+    public DashboardStatsService() {
+        for (Role role : Role.values()) {
+            usersByRole.put(role, new AtomicLong());
+        }
+        for (ProjectStatus status : ProjectStatus.values()) {
+            projectsByStatus.put(status, new AtomicLong());
+        }
+    }
+
+    public Map<String, Object> getDashboardStats() {
+        if (!initialized) {
+            reconcile();
+        }
+        return toStats(snapshot(usersByRole, Role.class), snapshot(projectsByStatus, ProjectStatus.class));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dashboard.counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${dashboard.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<Role, Long> roleCounts = new EnumMap<>(Role.class);
+        Map<ProjectStatus, Long> statusCounts = new EnumMap<>(ProjectStatus.class);
+
+        for (Object[] row : projectRepository.countUsersByRoleAndProjectsByStatus()) {
+            String dimension = (String) row[0];
+            String bucket = (String) row[1];
+            long total = ((Number) row[2]).longValue();
+            if ("ROLE".equals(dimension)) {
+                roleCounts.put(Role.valueOf(bucket), total);
+            } else {
+                statusCounts.put(ProjectStatus.valueOf(bucket), total);
+            }
+        }
+
+        usersByRole.forEach((role, counter) -> counter.set(roleCounts.getOrDefault(role, 0L)));
+        projectsByStatus.forEach((status, counter) -> counter.set(statusCounts.getOrDefault(status, 0L)));
+        initialized = true;
+        log.debug("Dashboard counters reconciled: users {} projects {}", roleCounts, statusCounts);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectStatusChanged(ProjectStatusChangedEvent event) {
+        if (event.getPreviousStatus() != null) {
+            projectsByStatus.get(event.getPreviousStatus()).decrementAndGet();
+        }
+        if (event.getNewStatus() != null) {
+            projectsByStatus.get(event.getNewStatus()).incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRoleChanged(UserRoleChangedEvent event) {
+        if (event.getPreviousRole() != null) {
+            usersByRole.get(event.getPreviousRole()).decrementAndGet();
+        }
+        if (event.getNewRole() != null) {
+            usersByRole.get(event.getNewRole()).incrementAndGet();
+        }
+    }
+
+    static Map<String, Object> toStats(Map<Role, Long> usersByRole, Map<ProjectStatus, Long> projectsByStatus) {
+        long totalProjects = projectsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        long completedProjects = projectsByStatus.getOrDefault(ProjectStatus.COMPLETED, 0L);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalStudents", usersByRole.getOrDefault(Role.STUDENT, 0L));
+        stats.put("totalFaculty", usersByRole.getOrDefault(Role.SUPERVISOR, 0L));
+        stats.put("totalProjects", totalProjects);
+        stats.put("pendingProjects", projectsByStatus.getOrDefault(ProjectStatus.PENDING, 0L));
+        stats.put("completedProjects", completedProjects);
+        stats.put("completionRate", totalProjects == 0 ? 0 : (double) completedProjects / totalProjects * 100);
+        return stats;
+    }
+
+    private static <K extends Enum<K>> Map<K, Long> snapshot(Map<K, AtomicLong> counters, Class<K> type) {
+        Map<K, Long> values = new EnumMap<>(type);
+        counters.forEach((key, counter) -> values.put(key, Math.max(0L, counter.get())));
+        return values;
+    }
+}
@@ -0,0 +1,266 @@
+package com.studentporta.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Pulls page count, a first-page thumbnail and a short text snippet out of
+ * PDF, DOCX, image and plain-text files. Each format is read only as far as
+ * needed: the first page of a PDF, the start of a DOCX body, the head of a
+ * text file.
+ */
+@Component
+public class DocumentPreviewExtractor {
+
+    private static final String DOCX_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+    private static final String WORD_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    // Larger images are decoded with subsampling instead of at full size
+    private static final long MAX_DECODED_PIXELS = 16_000_000L;
+
+    // Thumbnails of very tall pages are cut to this many widths, so a degenerate crop box cannot blow up the render
+    private static final int MAX_THUMBNAIL_ASPECT = 4;
+
+    @Value("${documents.preview.thumbnail-width:256}")
+    private int thumbnailWidth;
+
+    @Value("${documents.preview.snippet-length:500}")
+    private int snippetLength;
+
+    public record Extracted(Integer pageCount, String textSnippet, byte[] thumbnailPng) {}
+
+    /**
+     * @return empty if the format is not supported
+     */
+    public Optional<Extracted> extract(Path file, String fileName, String contentType) throws IOException {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+
+        if (type.equals("application/pdf") || name.endsWith(".pdf")) {
+            return Optional.of(pdf(file));
+        }
+        if (type.equals(DOCX_TYPE) || name.endsWith(".docx")) {
+            return Optional.of(docx(file));
+        }
+        if (type.startsWith("image/")) {
+            byte[] thumbnail;
+            try (InputStream in = Files.newInputStream(file)) {
+                thumbnail = thumbnail(in);
+            }
+            return thumbnail == null ? Optional.empty() : Optional.of(new Extracted(1, null, thumbnail));
+        }
+        if (type.startsWith("text/") || name.endsWith(".txt") || name.endsWith(".csv") || name.endsWith(".md")) {
+            return Optional.of(new Extracted(null, text(file), null));
+        }
+        return Optional.empty();
+    }
+
+    private Extracted pdf(Path file) throws IOException {
+        // Scratch buffers go to temp files so large PDFs do not fill the heap
+        try (PDDocument document = Loader.loadPDF(file.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            int pages = document.getNumberOfPages();
+            if (pages == 0) {
+                return new Extracted(0, null, null);
+            }
+            PDRectangle box = document.getPage(0).getCropBox();
+            byte[] thumbnail = null;
+            if (box.getWidth() > 0 && box.getHeight() > 0) {
+                float scale = Math.min(thumbnailWidth / box.getWidth(),
+                        (float) thumbnailWidth * MAX_THUMBNAIL_ASPECT / box.getHeight());
+                BufferedImage image = new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+                thumbnail = png(image);
+            }
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(1);
+            stripper.setEndPage(Math.min(pages, 2));
+            return new Extracted(pages, snippet(stripper.getText(document)), thumbnail);
+        }
+    }
+
+    private Extracted docx(Path file) throws IOException {
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            Integer pages = null;
+            ZipEntry app = zip.getEntry("docProps/app.xml");
+            if (app != null) {
+                try (InputStream in = zip.getInputStream(app)) {
+                    String value = firstElementText(in, "Pages");
+                    pages = value == null ? null : Integer.valueOf(value.trim());
+                } catch (NumberFormatException e) {
+                    pages = null;
+                }
+            }
+
+            String text = null;
+            ZipEntry body = zip.getEntry("word/document.xml");
+            if (body != null) {
+                try (InputStream in = zip.getInputStream(body)) {
+                    text = wordText(in);
+                }
+            }
+
+            // Word only embeds a thumbnail when "save preview picture" is on
+            byte[] thumbnail = null;
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements() && thumbnail == null) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.getName().startsWith("docProps/thumbnail.")) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        thumbnail = thumbnail(in);
+                    }
+                }
+            }
+            return new Extracted(pages, text, thumbnail);
+        }
+    }
+
+    private String text(Path file) throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(snippetLength * 4);
+        }
+        // A multi-byte character cut at the end of the buffer becomes a replacement char
+        String decoded = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(ByteBuffer.wrap(head))
+                .toString();
+        return snippet(decoded);
+    }
+
+    private byte[] thumbnail(InputStream in) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            if (stream == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = (int) Math.ceil(Math.sqrt((double) pixels / MAX_DECODED_PIXELS));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return png(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private byte[] png(BufferedImage image) throws IOException {
+        BufferedImage scaled = image;
+        if (image.getWidth() > thumbnailWidth) {
+            int height = Math.max(1, Math.round((float) image.getHeight() * thumbnailWidth / image.getWidth()));
+            scaled = new BufferedImage(thumbnailWidth, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(image, 0, 0, thumbnailWidth, height, null);
+            } finally {
+                graphics.dispose();
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "png", out);
+        return out.toByteArray();
+    }
+
+    // Collects <w:t> runs, with a space per paragraph, until the snippet is full
+    private String wordText(InputStream in) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try {
+            XMLStreamReader reader = xmlReader(in);
+            try {
+                while (reader.hasNext() && text.length() < snippetLength * 2) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT && WORD_NS.equals(reader.getNamespaceURI())
+                            && "t".equals(reader.getLocalName())) {
+                        text.append(reader.getElementText());
+                    } else if (event == XMLStreamConstants.END_ELEMENT && WORD_NS.equals(reader.getNamespaceURI())
+                            && "p".equals(reader.getLocalName())) {
+                        text.append(' ');
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed document.xml", e);
+        }
+        return snippet(text.toString());
+    }
+
+    private static String firstElementText(InputStream in, String localName) throws IOException {
+        try {
+            XMLStreamReader reader = xmlReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && localName.equals(reader.getLocalName())) {
+                        return reader.getElementText();
+                    }
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed " + localName + " metadata", e);
+        }
+    }
+
+    private static XMLStreamReader xmlReader(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory.createXMLStreamReader(in);
+    }
+
+    private String snippet(String text) {
+        if (text == null) {
+            return null;
+        }
+        String collapsed = text.replaceAll("\\s+", " ").trim();
+        if (collapsed.isEmpty()) {
+            return null;
+        }
+        return collapsed.length() <= snippetLength ? collapsed : collapsed.substring(0, snippetLength).trim() + "…";
+    }
+}
@@ -0,0 +1,228 @@
+package com.studentporta.service;
+
+import com.studentporta.dto.DocumentPreviewDTO;
+import com.studentporta.entity.DocumentBlob;
+import com.studentporta.entity.DocumentPreview;
+import com.studentporta.entity.PreviewStatus;
+import com.studentporta.respository.DocumentBlobRepository;
+import com.studentporta.respository.DocumentPreviewRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates previews after a document is stored, on a small bounded pool so
+ * that a burst of uploads cannot take CPU from request threads. Work that
+ * does not fit in the queue, or whose worker died, stays PENDING and is
+ * picked up again by the periodic sweep.
+ */
+@Service
+public class DocumentPreviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentPreviewService.class);
+
+    @Autowired
+    private DocumentPreviewRepository previewRepository;
+
+    @Autowired
+    private DocumentPreviewExtractor extractor;
+
+    @Autowired
+    private DocumentStorage storage;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Autowired
+    private DocumentBlobRepository blobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${documents.preview.threads:2}")
+    private int threads;
+
+    @Value("${documents.preview.queue-capacity:100}")
+    private int queueCapacity;
+
+    // Files above this size are marked UNSUPPORTED rather than parsed
+    @Value("${documents.preview.max-source-bytes:104857600}")
+    private long maxSourceBytes;
+
+    @Value("${documents.preview.retry-after-ms:300000}")
+    private long retryAfterMs;
+
+    private ThreadPoolExecutor executor;
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("document-preview-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentStored(DocumentStoredEvent event) {
+        if (event.getSha256() == null || previewRepository.existsBySha256(event.getSha256())) {
+            return;
+        }
+        try {
+            // One preview per distinct file; a concurrent upload of the same bytes loses the insert and stops here
+            transactionTemplate.executeWithoutResult(status -> previewRepository.save(
+                    new DocumentPreview(event.getSha256(), event.getFileName(), event.getContentType())));
+        } catch (DataIntegrityViolationException e) {
+            return;
+        }
+        submit(event.getSha256());
+    }
+
+    public Optional<DocumentPreviewDTO> getPreview(String sha256) {
+        return previewRepository.findSummaryBySha256(sha256);
+    }
+
+    public Optional<byte[]> getThumbnail(String sha256) {
+        return previewRepository.findThumbnailBySha256(sha256);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("generated", generated.sum());
+        stats.put("failed", failed.sum());
+        stats.put("deferred", deferred.sum());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${documents.preview.sweep-interval-ms:300000}")
+    public void sweep() {
+        LocalDateTime before = LocalDateTime.now().minusNanos(retryAfterMs * 1_000_000);
+        List<DocumentPreview> stale = previewRepository.findStale(
+                List.of(PreviewStatus.PENDING, PreviewStatus.PROCESSING), before,
+                PageRequest.of(0, Math.max(1, queueCapacity - executor.getQueue().size())));
+        for (DocumentPreview preview : stale) {
+            submit(preview.getSha256());
+        }
+        Integer removed = transactionTemplate.execute(status -> previewRepository.deleteWithoutBlob());
+        if (removed != null && removed > 0) {
+            log.info("Removed {} previews of deleted files", removed);
+        }
+    }
+
+    private void submit(String sha256) {
+        try {
+            executor.execute(() -> generate(sha256));
+        } catch (RejectedExecutionException e) {
+            deferred.increment();
+            log.debug("Preview queue full, deferring {}", sha256);
+        }
+    }
+
+    void generate(String sha256) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                previewRepository.claim(sha256, now, now.minusNanos(retryAfterMs * 1_000_000)));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        DocumentPreview preview = previewRepository.findBySha256(sha256).orElse(null);
+        if (preview == null) {
+            return;
+        }
+
+        Path temp = null;
+        try {
+            String key = BlobStoreService.keyFor(sha256);
+            DocumentBlob blob = blobRepository.findBySha256(sha256).orElse(null);
+            Optional<DocumentStorage.ObjectInfo> info = storage.stat(key);
+            if (blob == null || info.isEmpty()) {
+                finish(preview, PreviewStatus.FAILED, null, "Stored file not found");
+                return;
+            }
+            if (blob.getSize() > maxSourceBytes) {
+                finish(preview, PreviewStatus.UNSUPPORTED, null, "File too large for a preview");
+                return;
+            }
+            Path file = blob.getCodec() == null ? storage.localPath(key).orElse(null) : null;
+            if (file == null) {
+                // Parsers need random access to the original bytes, so remote or compressed objects
+                // are first copied to local scratch space
+                temp = blobStoreService.newStagingFile();
+                try (InputStream in = BlobStoreService.decode(storage.open(key, 0, info.get().size()), blob.getCodec())) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                file = temp;
+            }
+
+            Optional<DocumentPreviewExtractor.Extracted> extracted =
+                    extractor.extract(file, preview.getSourceName(), preview.getSourceType());
+            if (extracted.isEmpty()) {
+                finish(preview, PreviewStatus.UNSUPPORTED, null, null);
+            } else {
+                finish(preview, PreviewStatus.READY, extracted.get(), null);
+                generated.increment();
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.warn("Could not generate preview for blob {}", sha256, e);
+            finish(preview, PreviewStatus.FAILED, null, e.getMessage());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not remove preview scratch file {}", temp, e);
+                }
+            }
+        }
+    }
+
+    private void finish(DocumentPreview preview, PreviewStatus status,
+                        DocumentPreviewExtractor.Extracted extracted, String error) {
+        preview.setStatus(status);
+        preview.setUpdatedAt(LocalDateTime.now());
+        preview.setError(error == null ? null : error.substring(0, Math.min(error.length(), 500)));
+        if (extracted != null) {
+            preview.setPageCount(extracted.pageCount());
+            preview.setTextSnippet(extracted.textSnippet());
+            preview.setThumbnail(extracted.thumbnailPng());
+        }
+        transactionTemplate.executeWithoutResult(tx -> previewRepository.save(preview));
+    }
+}
@@ -1,83 +1,141 @@
 package com.studentporta.service;
 
+import com.studentporta.dto.KeysetCursor;
+import com.studentporta.dto.KeysetPage;
 import com.studentporta.dto.DocumentDTO;
 import com.studentporta.entity.Document;
+import com.studentporta.entity.DocumentBlob;
 import com.studentporta.entity.User;
+import com.studentporta.respository.DocumentFileView;
 import com.studentporta.respository.DocumentRepository;
 import com.studentporta.respository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class DocumentService {
 
+    private static final Logger log = LoggerFactory.getLogger(DocumentService.class);
+
     @Autowired
     private DocumentRepository documentRepository;
 
     @Autowired
     private UserRepository userRepository;
 
-    private static final String UPLOAD_DIR = "uploads/documents/";
+    @Autowired
+    private PaginationSettings paginationSettings;
 
-    public DocumentService() {
-        // Create upload directory if it doesn't exist
-        try {
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Could not create upload directory", e);
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public DocumentDTO uploadDocument(MultipartFile file, String title, String description, 
+                                    Long supervisorId, Long studentId, long maxBytes) throws IOException {
+        if (file.getSize() > maxBytes) {
+            throw new UploadTooLargeException(maxBytes);
+        }
+        try (InputStream in = file.getInputStream()) {
+            return storeDocument(in, file.getOriginalFilename(), file.getContentType(), title, description,
+                    supervisorId, studentId, maxBytes, null);
         }
     }
 
-    public DocumentDTO uploadDocument(MultipartFile file, String title, String description, 
-                                    Long supervisorId, Long studentId) throws IOException {
-        
-        User supervisor = userRepository.findById(supervisorId)
+    /**
+     * Stores a raw request body without multipart buffering: the bytes are
+     * hashed and counted as they are read, and the upload is abandoned as
+     * soon as it passes {@code maxBytes}. A client that sends the expected
+     * SHA-256 of a file the store already holds costs no disk writes.
+     */
+    public DocumentDTO uploadDocumentStream(InputStream body, String originalFilename, String contentType,
+                                            String title, String description, Long supervisorId, Long studentId,
+                                            long maxBytes, String expectedSha256) throws IOException {
+        return storeDocument(body, originalFilename, contentType, title, description, supervisorId, studentId,
+                maxBytes, expectedSha256);
+    }
+
+    private DocumentDTO storeDocument(InputStream in, String originalFilename, String contentType,
+                                      String title, String description, Long supervisorId, Long studentId,
+                                      long maxBytes, String expectedSha256) throws IOException {
+        User supervisor = findSupervisor(supervisorId);
+        User student = findStudent(studentId);
+        DocumentBlob blob = blobStoreService.store(in, maxBytes, expectedSha256);
+        return saveDocument(blob, originalFilename, contentType, title, description, supervisor, student);
+    }
+
+    /**
+     * Creates a document from a file assembled in the blob store's staging area.
+     */
+    public DocumentDTO createDocumentFromStagedFile(Path staged, String originalFilename, String contentType,
+                                                    String title, String description, Long supervisorId,
+                                                    Long studentId) throws IOException {
+        User supervisor = findSupervisor(supervisorId);
+        User student = findStudent(studentId);
+        DocumentBlob blob = blobStoreService.adopt(staged);
+        return saveDocument(blob, originalFilename, contentType, title, description, supervisor, student);
+    }
+
+    public void validateOwners(Long supervisorId, Long studentId) {
+        findSupervisor(supervisorId);
+        findStudent(studentId);
+    }
+
+    private User findSupervisor(Long supervisorId) {
+        return userRepository.findById(supervisorId)
                 .orElseThrow(() -> new RuntimeException("Supervisor not found"));
+    }
 
-        User student = null;
-        if (studentId != null) {
-            student = userRepository.findById(studentId)
-                    .orElseThrow(() -> new RuntimeException("Student not found"));
+    private User findStudent(Long studentId) {
+        if (studentId == null) {
+            return null;
         }
+        return userRepository.findById(studentId)
+                .orElseThrow(() -> new RuntimeException("Student not found"));
+    }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        
-        // Save file to disk
-        Path filePath = Paths.get(UPLOAD_DIR + uniqueFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        // Create document entity
+    private DocumentDTO saveDocument(DocumentBlob blob, String originalFilename, String contentType,
+                                     String title, String description, User supervisor, User student) {
         Document document = new Document(
                 title,
                 description,
-                filePath.toString(),
+                blob.getStorageKey(),
                 originalFilename,
-                file.getSize(),
-                file.getContentType(),
+                blob.getSize(),
+                contentType,
                 supervisor,
                 student
         );
+        document.setSha256(blob.getSha256());
+        document.setContentEncoding(blob.getCodec());
 
-        Document savedDocument = documentRepository.save(document);
-        return convertToDTO(savedDocument);
+        try {
+            Document savedDocument = documentRepository.save(document);
+            eventPublisher.publishEvent(new DocumentStoredEvent(savedDocument.getId(), blob.getSha256(),
+                    originalFilename, contentType));
+            return convertToDTO(savedDocument);
+        } catch (RuntimeException e) {
+            blobStoreService.release(blob.getSha256());
+            throw e;
+        }
     }
 
     public List<DocumentDTO> getDocumentsBySupervisor(Long supervisorId) {
@@ -87,31 +145,38 @@ public class DocumentService {
                 .collect(Collectors.toList());
     }
 
-    public List<DocumentDTO> getDocumentsForStudent(Long studentId) {
-        // Get student-specific documents
-        List<Document> studentSpecificDocuments = documentRepository.findByStudentIdOrderByCreatedAtDesc(studentId);
-        
-        // Get student's supervisor
-        User student = userRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-        
-        // Get general documents from student's supervisor
-        List<Document> generalDocuments = new ArrayList<>();
-        if (student.getSupervisor() != null) {
-            generalDocuments = documentRepository.findGeneralDocumentsBySupervisor(student.getSupervisor().getId());
+    public KeysetPage<DocumentDTO> getDocumentsBySupervisorPage(Long supervisorId, String cursor, Integer limit) {
+        int size = paginationSettings.resolveLimit(cursor, limit);
+        List<Document> rows;
+        if (cursor == null) {
+            rows = documentRepository.findFirstKeysetPageBySupervisor(supervisorId, paginationSettings.probe(size));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = documentRepository.findKeysetPageBySupervisorAfter(supervisorId, after.getCreatedAt(), after.getId(),
+                    paginationSettings.probe(size));
         }
-        
-        // Combine both lists
-        List<Document> allDocuments = new ArrayList<>();
-        allDocuments.addAll(studentSpecificDocuments);
-        allDocuments.addAll(generalDocuments);
-        
-        // Sort by creation date (newest first)
-        allDocuments.sort((d1, d2) -> d2.getCreatedAt().compareTo(d1.getCreatedAt()));
-        
-        return allDocuments.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return KeysetPage.of(rows, size, this::convertToDTO, d -> KeysetCursor.of(d.getCreatedAt(), d.getId()));
+    }
+
+    /**
+     * Documents addressed to the student and general documents of the
+     * student's supervisor, newest first, in one query per page.
+     */
+    public KeysetPage<DocumentDTO> getDocumentsForStudentPage(Long studentId, String cursor, Integer limit) {
+        int size = paginationSettings.resolveLimit(cursor, limit);
+        List<DocumentDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = documentRepository.findFirstStudentFeedPage(studentId, paginationSettings.probe(size));
+            // Only an empty feed needs the extra lookup to tell "no documents" from "no such student"
+            if (rows.isEmpty() && !userRepository.existsById(studentId)) {
+                throw new RuntimeException("Student not found");
+            }
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = documentRepository.findStudentFeedPageAfter(studentId, after.getCreatedAt(), after.getId(),
+                    paginationSettings.probe(size));
+        }
+        return KeysetPage.of(rows, size, dto -> dto, dto -> KeysetCursor.of(dto.getCreatedAt(), dto.getId()));
     }
 
     public List<DocumentDTO> getGeneralDocumentsBySupervisor(Long supervisorId) {
@@ -134,20 +199,54 @@ public class DocumentService {
         return convertToDTO(document);
     }
 
+    public Optional<DocumentFileView> getDocumentFile(Long documentId) {
+        return documentRepository.findFileViewById(documentId);
+    }
+
+    // Blob-backed documents keep their storage key as file path (or, if saved before keys were used, the
+    // key's resolved local path); other rows own a private file, even when they carry a hash
+    public boolean isStoredInBlobStore(DocumentFileView file) {
+        return isStoredInBlobStore(file.getSha256(), file.getFilePath());
+    }
+
+    private static boolean isStoredInBlobStore(String sha256, String filePath) {
+        if (sha256 == null) {
+            return false;
+        }
+        String key = BlobStoreService.keyFor(sha256);
+        return filePath.equals(key) || filePath.replace('\\', '/').endsWith("/" + key);
+    }
+
+    /**
+     * Deletes the row and drops its blob reference in one transaction; files
+     * and objects are only removed once that transaction has committed.
+     */
+    @Transactional
     public void deleteDocument(Long documentId) {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new RuntimeException("Document not found"));
-        
-        // Delete file from disk
-        try {
-            Path filePath = Paths.get(document.getFilePath());
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            // Log error but don't throw exception
-            System.err.println("Could not delete file: " + document.getFilePath());
-        }
-        
+
         documentRepository.delete(document);
+
+        // Shared blobs are only removed with their last reference; older documents own their file
+        if (isStoredInBlobStore(document.getSha256(), document.getFilePath())) {
+            if (!blobStoreService.releaseInTransaction(document.getSha256())) {
+                log.warn("Document {} referenced blob {} which has no reference left", documentId, document.getSha256());
+            }
+            return;
+        }
+        Path filePath = Paths.get(document.getFilePath());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    Files.deleteIfExists(filePath);
+                } catch (IOException e) {
+                    // Log error but don't throw exception
+                    log.warn("Could not delete file: {}", filePath, e);
+                }
+            }
+        });
     }
 
     private DocumentDTO convertToDTO(Document document) {
@@ -159,6 +258,7 @@ public class DocumentService {
         dto.setFileName(document.getFileName());
         dto.setFileSize(document.getFileSize());
         dto.setFileType(document.getFileType());
+        dto.setSha256(document.getSha256());
         dto.setSupervisorId(document.getSupervisor().getId());
         dto.setSupervisorName(document.getSupervisor().getFirstName() + " " + document.getSupervisor().getLastName());
         
@@ -0,0 +1,46 @@
+package com.studentporta.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Backend holding document bytes under opaque keys. The implementation is
+ * chosen with {@code documents.storage.type} ({@code local} or {@code s3}).
+ */
+public interface DocumentStorage {
+
+    record ObjectInfo(long size, long lastModifiedMillis) {}
+
+    /**
+     * Stores a fully written local file under {@code key}. The staged file is
+     * consumed: it is moved or deleted once the object is stored.
+     */
+    void put(String key, Path stagedFile) throws IOException;
+
+    Optional<ObjectInfo> stat(String key) throws IOException;
+
+    /**
+     * Streams {@code length} bytes starting at {@code offset} straight from the
+     * backend; nothing is buffered beyond the caller's read size.
+     */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    /**
+     * The file behind {@code key} when the backend keeps objects on this node's
+     * disk, which lets downloads use sendfile.
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Every stored key, in ascending lexicographic order. The stream is lazy and
+     * must be closed.
+     */
+    Stream<String> listKeys() throws IOException;
+}
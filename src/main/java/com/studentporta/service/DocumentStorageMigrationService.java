@@ -0,0 +1,205 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.DocumentBlob;
+import com.studentporta.respository.DocumentBlobRepository;
+import com.studentporta.respository.DocumentFileView;
+import com.studentporta.respository.DocumentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves documents stored before the sharded blob layout (one flat upload
+ * directory) into the blob store while the application keeps serving them.
+ * Documents are walked in id order in batches; each file is copied into the
+ * store, the row is switched to the blob key with a compare-and-set update,
+ * and only then is the old file removed, so a download never sees a row
+ * pointing at a missing file.
+ */
+@Service
+public class DocumentStorageMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentStorageMigrationService.class);
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentBlobRepository blobRepository;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${documents.migration.batch-size:200}")
+    private int batchSize;
+
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("storage-migration-"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopRequested;
+
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder migrated = new LongAdder();
+    private final LongAdder relinked = new LongAdder();
+    private final LongAdder missing = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bytesMoved = new LongAdder();
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile long lastId;
+    private volatile String lastError;
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+        executor.shutdown();
+    }
+
+    /**
+     * @return false if a run is already in progress
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        stopRequested = false;
+        for (LongAdder counter : List.of(scanned, migrated, relinked, missing, failed, bytesMoved)) {
+            counter.reset();
+        }
+        startedAt = System.currentTimeMillis();
+        finishedAt = 0;
+        lastId = 0;
+        lastError = null;
+        executor.execute(this::run);
+        return true;
+    }
+
+    // The current document finishes first, so the store and the table stay consistent
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public Map<String, Object> getStats() {
+        long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+        double seconds = startedAt > 0 ? Math.max(1, end - startedAt) / 1000.0 : 0;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", running.get());
+        stats.put("startedAt", startedAt);
+        stats.put("finishedAt", finishedAt);
+        stats.put("lastDocumentId", lastId);
+        stats.put("scanned", scanned.sum());
+        stats.put("migrated", migrated.sum());
+        stats.put("relinked", relinked.sum());
+        stats.put("missingFiles", missing.sum());
+        stats.put("failed", failed.sum());
+        stats.put("bytesMoved", bytesMoved.sum());
+        stats.put("filesPerSecond", seconds > 0 ? migrated.sum() / seconds : 0.0);
+        stats.put("megabytesPerSecond", seconds > 0 ? bytesMoved.sum() / seconds / (1024 * 1024) : 0.0);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    private void run() {
+        try {
+            long afterId = 0;
+            while (!stopRequested) {
+                List<DocumentFileView> batch =
+                        documentRepository.findUnmigratedFileViewsAfter(afterId, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (DocumentFileView file : batch) {
+                    if (stopRequested) {
+                        break;
+                    }
+                    migrate(file);
+                    afterId = file.getId();
+                    lastId = afterId;
+                }
+                log.info("Storage migration at document {}: {} migrated, {} relinked, {} missing, {} failed",
+                        afterId, migrated.sum(), relinked.sum(), missing.sum(), failed.sum());
+            }
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("Storage migration aborted", e);
+        } finally {
+            finishedAt = System.currentTimeMillis();
+            running.set(false);
+            log.info("Storage migration finished: {}", getStats());
+        }
+    }
+
+    private void migrate(DocumentFileView file) {
+        scanned.increment();
+        String oldPath = file.getFilePath();
+        try {
+            // Rows saved before storage keys were used hold the resolved local path of an existing blob
+            if (file.getSha256() != null && oldPath.endsWith("/" + BlobStoreService.keyFor(file.getSha256()))) {
+                Optional<DocumentBlob> existing = blobRepository.findBySha256(file.getSha256());
+                if (existing.isPresent()) {
+                    if (relocate(file.getId(), oldPath, existing.get())) {
+                        relinked.increment();
+                    }
+                    return;
+                }
+            }
+
+            Path legacy = Paths.get(oldPath);
+            if (!Files.isRegularFile(legacy)) {
+                missing.increment();
+                log.warn("Document {} points at missing file {}", file.getId(), oldPath);
+                return;
+            }
+            Path staged = blobStoreService.newStagingFile();
+            Files.copy(legacy, staged);
+            DocumentBlob blob = blobStoreService.adopt(staged);
+            boolean relocated;
+            try {
+                relocated = relocate(file.getId(), oldPath, blob);
+            } catch (RuntimeException e) {
+                blobStoreService.release(blob.getSha256());
+                throw e;
+            }
+            if (!relocated) {
+                // Deleted or replaced while we copied it
+                blobStoreService.release(blob.getSha256());
+                return;
+            }
+            migrated.increment();
+            bytesMoved.add(blob.getSize());
+            Files.deleteIfExists(legacy);
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            lastError = "Document " + file.getId() + ": " + e.getMessage();
+            log.warn("Could not migrate file of document {}", file.getId(), e);
+        }
+    }
+
+    private boolean relocate(Long documentId, String oldPath, DocumentBlob blob) {
+        Integer updated = transactionTemplate.execute(status -> documentRepository.relocateFile(
+                documentId, oldPath, blob.getStorageKey(), blob.getSha256(), blob.getCodec()));
+        return updated != null && updated > 0;
+    }
+}
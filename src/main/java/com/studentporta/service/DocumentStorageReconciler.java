@@ -0,0 +1,249 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.DocumentBlob;
+import com.studentporta.respository.DocumentBlobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Compares the objects in {@link DocumentStorage} with the
+ * {@code document_blobs} table. Both sides are read in key order, the storage
+ * listing as a lazy stream and the table in keyset pages, and merge-joined,
+ * so memory stays bounded by one page however large the store grows.
+ * Objects without a row are orphans (e.g. a crash between storing the file
+ * and inserting the row, or a failed delete); rows without an object are
+ * missing files. Orphans older than a grace period can be deleted; missing
+ * files are only reported, since the documents pointing at them still carry
+ * metadata somebody may want to re-upload against.
+ */
+@Service
+public class DocumentStorageReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentStorageReconciler.class);
+    private static final int SAMPLE_SIZE = 20;
+
+    @Autowired
+    private DocumentStorage storage;
+
+    @Autowired
+    private DocumentBlobRepository blobRepository;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Value("${documents.reconciler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${documents.reconciler.delete-orphans:false}")
+    private boolean deleteOrphans;
+
+    // Keeps objects of uploads that are being committed right now out of reach
+    @Value("${documents.reconciler.orphan-min-age-ms:3600000}")
+    private long orphanMinAgeMs;
+
+    @Value("${documents.reconciler.page-size:500}")
+    private int pageSize;
+
+    // Storage keys plus table rows examined per second; 0 disables the limit
+    @Value("${documents.reconciler.max-items-per-second:2000}")
+    private int maxItemsPerSecond;
+
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("storage-reconciler-"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastReport = Collections.emptyMap();
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${documents.reconciler.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * @return false if a run is already in progress
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                lastReport = reconcile();
+            } catch (IOException | RuntimeException e) {
+                log.error("Document storage reconciliation failed", e);
+                Map<String, Object> failed = new HashMap<>();
+                failed.put("error", e.getMessage());
+                failed.put("finishedAt", System.currentTimeMillis());
+                lastReport = failed;
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(lastReport);
+        stats.put("running", running.get());
+        return stats;
+    }
+
+    Map<String, Object> reconcile() throws IOException {
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime startedAtTime = LocalDateTime.now();
+        Pacer pacer = new Pacer(maxItemsPerSecond);
+        long keysScanned = 0;
+        long rowsScanned = 0;
+        long orphansDeleted = 0;
+        List<String> orphans = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        long orphanCount = 0;
+        long missingCount = 0;
+
+        try (Stream<String> keyStream = storage.listKeys()) {
+            Iterator<String> keys = keyStream.iterator();
+            BlobCursor rows = new BlobCursor();
+            String key = keys.hasNext() ? keys.next() : null;
+            DocumentBlob row = rows.next();
+
+            while (key != null || row != null) {
+                int cmp = key == null ? 1 : row == null ? -1 : key.compareTo(row.getStorageKey());
+                if (cmp < 0) {
+                    keysScanned++;
+                    orphanCount++;
+                    sample(orphans, key);
+                    if (deleteOrphans && deleteIfOrphaned(key, startedAt)) {
+                        orphansDeleted++;
+                    }
+                    key = keys.hasNext() ? keys.next() : null;
+                } else if (cmp > 0) {
+                    rowsScanned++;
+                    // A row newer than the run may belong to an object the listing had already passed
+                    if (row.getCreatedAt() == null || row.getCreatedAt().isBefore(startedAtTime)) {
+                        missingCount++;
+                        sample(missing, row.getStorageKey());
+                        log.warn("Blob {} has no object in storage ({} document references)",
+                                row.getSha256(), row.getRefCount());
+                    }
+                    row = rows.next();
+                } else {
+                    keysScanned++;
+                    rowsScanned++;
+                    key = keys.hasNext() ? keys.next() : null;
+                    row = rows.next();
+                }
+                pacer.pace();
+            }
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("startedAt", startedAt);
+        report.put("finishedAt", System.currentTimeMillis());
+        report.put("keysScanned", keysScanned);
+        report.put("rowsScanned", rowsScanned);
+        report.put("orphans", orphanCount);
+        report.put("orphansDeleted", orphansDeleted);
+        report.put("missingObjects", missingCount);
+        report.put("orphanSample", orphans);
+        report.put("missingSample", missing);
+        log.info("Document storage reconciliation: {} objects, {} rows, {} orphans ({} deleted), {} missing",
+                keysScanned, rowsScanned, orphanCount, orphansDeleted, missingCount);
+        return report;
+    }
+
+    // Goes through the blob store so a concurrent commit of the same bytes cannot lose its object
+    private boolean deleteIfOrphaned(String key, long startedAt) {
+        try {
+            if (!blobStoreService.deleteOrphanedObject(key, startedAt - orphanMinAgeMs)) {
+                return false;
+            }
+            log.info("Deleted orphaned document object {}", key);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not delete orphaned document object {}", key, e);
+            return false;
+        }
+    }
+
+    private static void sample(List<String> samples, String value) {
+        if (samples.size() < SAMPLE_SIZE) {
+            samples.add(value);
+        }
+    }
+
+    // Walks document_blobs in hash order one page at a time
+    private final class BlobCursor {
+        private List<DocumentBlob> page = List.of();
+        private int index;
+        private String afterSha256 = "";
+        private boolean exhausted;
+
+        DocumentBlob next() {
+            if (index == page.size()) {
+                if (exhausted) {
+                    return null;
+                }
+                page = blobRepository.findPageAfter(afterSha256, PageRequest.of(0, pageSize));
+                index = 0;
+                exhausted = page.size() < pageSize;
+                if (page.isEmpty()) {
+                    return null;
+                }
+                afterSha256 = page.get(page.size() - 1).getSha256();
+            }
+            return page.get(index++);
+        }
+    }
+
+    // Sleeps just enough to keep the average rate at or below the limit
+    private static final class Pacer {
+        private final long nanosPerItem;
+        private final long start = System.nanoTime();
+        private long items;
+
+        Pacer(int itemsPerSecond) {
+            this.nanosPerItem = itemsPerSecond > 0 ? 1_000_000_000L / itemsPerSecond : 0;
+        }
+
+        void pace() {
+            if (nanosPerItem == 0) {
+                return;
+            }
+            long aheadBy = start + ++items * nanosPerItem - System.nanoTime();
+            if (aheadBy > 1_000_000) {
+                try {
+                    Thread.sleep(aheadBy / 1_000_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Reconciliation interrupted", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.studentporta.service;
+
+/**
+ * Published when a document row pointing at a stored blob has been saved.
+ */
+public class DocumentStoredEvent {
+
+    private final Long documentId;
+    private final String sha256;
+    private final String fileName;
+    private final String contentType;
+
+    public DocumentStoredEvent(Long documentId, String sha256, String fileName, String contentType) {
+        this.documentId = documentId;
+        this.sha256 = sha256;
+        this.fileName = fileName;
+        this.contentType = contentType;
+    }
+
+    public Long getDocumentId() { return documentId; }
+
+    public String getSha256() { return sha256; }
+
+    public String getFileName() { return fileName; }
+
+    public String getContentType() { return contentType; }
+}
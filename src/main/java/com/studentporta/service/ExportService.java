@@ -0,0 +1,146 @@
+package com.studentporta.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.studentporta.dto.FeedbackDTO;
+import com.studentporta.dto.ProjectDTO;
+import com.studentporta.dto.UserDTO;
+import com.studentporta.entity.Feedback;
+import com.studentporta.entity.Project;
+import com.studentporta.entity.User;
+import com.studentporta.respository.FeedbackRepository;
+import com.studentporta.respository.ProjectRepository;
+import com.studentporta.respository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes full data sets row by row from a server-side cursor. Memory use is
+ * bounded by the JDBC fetch size and the persistence context, which is
+ * cleared every {@code export.clear-every} rows.
+ */
+@Service
+public class ExportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FeedbackService feedbackService;
+
+    @Value("${export.clear-every:500}")
+    private int clearEvery;
+
+    @Transactional(readOnly = true)
+    public long exportProjects(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Project> rows = projectRepository.streamAllForExport()) {
+            return write(rows, projectService::convertToDTO, ProjectDTO.class, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportUsers(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<User> rows = userRepository.streamAllForExport()) {
+            return write(rows, userService::convertToDTO, UserDTO.class, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportFeedback(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Feedback> rows = feedbackRepository.streamAllForExport()) {
+            return write(rows, feedbackService::convertToDTO, FeedbackDTO.class, format, out);
+        }
+    }
+
+    private <E, T> long write(Stream<E> rows, Function<E, T> mapper, Class<T> type,
+                              ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        List<String> columns = null;
+        if (format == ExportFormat.CSV) {
+            columns = columnsOf(type);
+            writeCsvLine(writer, columns);
+        }
+
+        long count = 0;
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T dto = mapper.apply(iterator.next());
+            if (format == ExportFormat.CSV) {
+                JsonNode node = objectMapper.valueToTree(dto);
+                writeCsvLine(writer, columns.stream()
+                        .map(column -> node.hasNonNull(column) ? node.get(column).asText() : "")
+                        .collect(Collectors.toList()));
+            } else {
+                writer.write(objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+            }
+            if (++count % clearEvery == 0) {
+                // Already written rows (and their fetched associations) are no longer needed
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private List<String> columnsOf(Class<?> type) {
+        return objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(type))
+                .findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toList());
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,6 +1,8 @@
 package com.studentporta.service;
 
 import com.studentporta.dto.FeedbackDTO;
+import com.studentporta.dto.KeysetCursor;
+import com.studentporta.dto.KeysetPage;
 import com.studentporta.entity.Feedback;
 import com.studentporta.entity.Project;
 import com.studentporta.entity.User;
@@ -28,12 +30,23 @@ public class FeedbackService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PaginationSettings paginationSettings;
+
     public List<FeedbackDTO> getAllFeedback() {
         return feedbackRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    public KeysetPage<FeedbackDTO> getFeedbackPage(String cursor, Integer limit) {
+        int size = paginationSettings.resolveLimit(cursor, limit);
+        List<Feedback> rows = cursor == null
+                ? feedbackRepository.findFirstKeysetPage(paginationSettings.probe(size))
+                : feedbackRepository.findKeysetPageAfter(KeysetCursor.decode(cursor).getId(), paginationSettings.probe(size));
+        return KeysetPage.of(rows, size, this::convertToDTO, f -> KeysetCursor.ofId(f.getId()));
+    }
+
     public Optional<FeedbackDTO> getFeedbackById(Long id) {
         return feedbackRepository.findById(id)
                 .map(this::convertToDTO);
@@ -100,7 +113,7 @@ public class FeedbackService {
         return feedbackRepository.getAverageRatingByStudentId(studentId);
     }
 
-    private FeedbackDTO convertToDTO(Feedback feedback) {
+    FeedbackDTO convertToDTO(Feedback feedback) {
         FeedbackDTO dto = new FeedbackDTO();
         dto.setId(feedback.getId());
         dto.setProjectId(feedback.getProject().getId());
@@ -0,0 +1,154 @@
+package com.studentporta.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Keeps objects as files below {@code documents.storage.local.root}. Keys are
+ * sharded two levels deep ({@code ab/cd/<sha256>}), which keeps directories
+ * small and lets {@link #listKeys()} walk them in sorted order lazily.
+ */
+@Component
+@ConditionalOnProperty(name = "documents.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalDocumentStorage implements DocumentStorage {
+
+    private static final int SHARD_LEVELS = 2;
+
+    @Value("${documents.storage.local.root:uploads/blobs}")
+    private String rootDir;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(rootDir);
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public void put(String key, Path stagedFile) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(stagedFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Staging on another file system; identical bytes make a non-atomic replace safe
+            Files.move(stagedFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public Optional<ObjectInfo> stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return Optional.of(new ObjectInfo(attributes.size(), attributes.lastModifiedTime().toMillis()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        channel.position(offset);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Stream<String> listKeys() throws IOException {
+        return listLevel(root, "", 0);
+    }
+
+    private Stream<String> listLevel(Path dir, String prefix, int level) throws IOException {
+        Stream<Path> entries = Files.list(dir).sorted();
+        if (level == SHARD_LEVELS) {
+            return entries.filter(Files::isRegularFile)
+                    .map(file -> prefix + file.getFileName());
+        }
+        // Only two-character shard directories; anything else (e.g. the staging dir) is not a key
+        return entries.filter(path -> path.getFileName().toString().length() == 2 && Files.isDirectory(path))
+                .flatMap(path -> {
+                    try {
+                        return listLevel(path, prefix + path.getFileName() + "/", level + 1);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .onClose(entries::close);
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root.normalize())) {
+            throw new IllegalArgumentException("Key escapes the storage root: " + key);
+        }
+        return path;
+    }
+
+    private static final class BoundedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            this.in = in;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(buffer, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.studentporta.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaginationSettings {
+
+    // probe() adds one row, so this is the largest limit that still fits a page request
+    private static final int UNBOUNDED = Integer.MAX_VALUE - 1;
+
+    @Value("${pagination.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Clients that send neither a cursor nor a limit predate pagination and
+     * still get the whole list; a cursor without a limit pages at the default size.
+     */
+    public int resolveLimit(String cursor, Integer requested) {
+        if (requested == null || requested <= 0) {
+            return cursor == null || cursor.isBlank() ? UNBOUNDED : defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    // One row more than the page so the caller can tell whether a next page exists
+    public Pageable probe(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+}
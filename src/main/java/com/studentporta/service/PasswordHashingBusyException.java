@@ -0,0 +1,19 @@
+package com.studentporta.service;
+
+/**
+ * Thrown when the password hashing pool cannot take more work. Controllers
+ * translate it into a 503 with a Retry-After header.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,5 +1,7 @@
 package com.studentporta.service;
 
+import com.studentporta.dto.KeysetCursor;
+import com.studentporta.dto.KeysetPage;
 import com.studentporta.dto.ProgressUpdateDTO;
 import com.studentporta.entity.ProgressUpdate;
 import com.studentporta.entity.Project;
@@ -22,6 +24,9 @@ public class ProgressUpdateService {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private PaginationSettings paginationSettings;
+
     public ProgressUpdateDTO createProgressUpdate(ProgressUpdateDTO dto) {
         Optional<Project> projectOpt = projectRepository.findById(dto.getProjectId());
         if (projectOpt.isEmpty()) {
@@ -82,6 +87,19 @@ public class ProgressUpdateService {
                 .collect(Collectors.toList());
     }
 
+    public KeysetPage<ProgressUpdateDTO> getProgressUpdatesPage(Long projectId, String cursor, Integer limit) {
+        int size = paginationSettings.resolveLimit(cursor, limit);
+        List<ProgressUpdate> rows;
+        if (cursor == null) {
+            rows = progressUpdateRepository.findFirstKeysetPage(projectId, paginationSettings.probe(size));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = progressUpdateRepository.findKeysetPageAfter(projectId, after.getPosition(), after.getId(),
+                    paginationSettings.probe(size));
+        }
+        return KeysetPage.of(rows, size, this::convertToDTO, pu -> KeysetCursor.of(pu.getWeekNumber(), pu.getId()));
+    }
+
     public void deleteProgressUpdate(Long id) {
         if (!progressUpdateRepository.existsById(id)) {
             throw new RuntimeException("Progress update not found with id: " + id);
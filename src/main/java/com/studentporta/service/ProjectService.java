@@ -1,12 +1,20 @@
 package com.studentporta.service;
 
+import com.studentporta.dto.KeysetCursor;
+import com.studentporta.dto.KeysetPage;
 import com.studentporta.dto.ProjectDTO;
 import com.studentporta.entity.Project;
 import com.studentporta.entity.ProjectStatus;
 import com.studentporta.entity.User;
 import com.studentporta.respository.ProjectRepository;
 import com.studentporta.respository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +25,8 @@ import java.util.stream.Collectors;
 @Service
 @Transactional
 public class ProjectService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectService.class);
     
     @Autowired
     private ProjectRepository projectRepository;
@@ -24,12 +34,30 @@ public class ProjectService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PaginationSettings paginationSettings;
+
     public List<ProjectDTO> getAllProjects() {
         return projectRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    public KeysetPage<ProjectDTO> getProjectsPage(String cursor, Integer limit) {
+        int size = paginationSettings.resolveLimit(cursor, limit);
+        List<Project> rows;
+        if (cursor == null) {
+            rows = projectRepository.findFirstKeysetPage(paginationSettings.probe(size));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = projectRepository.findKeysetPageAfter(after.getCreatedAt(), after.getId(), paginationSettings.probe(size));
+        }
+        return KeysetPage.of(rows, size, this::convertToDTO, p -> KeysetCursor.of(p.getCreatedAt(), p.getId()));
+    }
+
     public Optional<ProjectDTO> getProjectById(Long id) {
         return projectRepository.findById(id)
                 .map(this::convertToDTO);
@@ -54,22 +82,14 @@ public class ProjectService {
     }
 
     public List<ProjectDTO> getProjectsBySupervisorStudents(Long supervisorId) {
-        // Get all students assigned to this supervisor
-        List<User> assignedStudents = userRepository.findBySupervisorId(supervisorId);
-        System.out.println("Supervisor ID: " + supervisorId);
-        System.out.println("Assigned students count: " + assignedStudents.size());
-        
-        // Get all projects from these students
-        List<ProjectDTO> projects = assignedStudents.stream()
-                .flatMap(student -> {
-                    List<Project> studentProjects = projectRepository.findByStudentId(student.getId());
-                    System.out.println("Student " + student.getFirstName() + " " + student.getLastName() + " has " + studentProjects.size() + " projects");
-                    return studentProjects.stream();
-                })
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        
-        System.out.println("Total projects found: " + projects.size());
+        return getProjectsBySupervisorStudents(supervisorId, Pageable.unpaged(Sort.by(Sort.Direction.DESC, "createdAt")))
+                .getContent();
+    }
+
+    public Page<ProjectDTO> getProjectsBySupervisorStudents(Long supervisorId, Pageable pageable) {
+        Page<ProjectDTO> projects = projectRepository.findBySupervisorOfStudent(supervisorId, pageable)
+                .map(this::convertToDTO);
+        log.debug("Supervisor {} students have {} projects", supervisorId, projects.getTotalElements());
         return projects;
     }
 
@@ -107,6 +127,7 @@ public class ProjectService {
         project.setScreenshots(projectDTO.getScreenshots());
         
         Project savedProject = projectRepository.save(project);
+        eventPublisher.publishEvent(new ProjectStatusChangedEvent(null, savedProject.getStatus()));
         return convertToDTO(savedProject);
     }
 
@@ -119,6 +140,7 @@ public class ProjectService {
         project.setTools(projectDTO.getTools());
         project.setDescription(projectDTO.getDescription());
         project.setCategory(projectDTO.getCategory());
+        ProjectStatus previousStatus = project.getStatus();
         project.setStatus(projectDTO.getStatus());
         project.setProgress(projectDTO.getProgress());
         project.setStartDate(projectDTO.getStartDate());
@@ -130,22 +152,31 @@ public class ProjectService {
         project.setScreenshots(projectDTO.getScreenshots());
         
         Project updatedProject = projectRepository.save(project);
+        publishStatusChange(previousStatus, updatedProject.getStatus());
         return convertToDTO(updatedProject);
     }
 
     public ProjectDTO updateProjectStatus(Long id, ProjectStatus status) {
         Project project = projectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
+        ProjectStatus previousStatus = project.getStatus();
         project.setStatus(status);
         Project updatedProject = projectRepository.save(project);
+        publishStatusChange(previousStatus, updatedProject.getStatus());
         return convertToDTO(updatedProject);
     }
 
     public void deleteProject(Long id) {
-        if (!projectRepository.existsById(id)) {
-            throw new RuntimeException("Project not found");
+        Project project = projectRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        projectRepository.delete(project);
+        eventPublisher.publishEvent(new ProjectStatusChangedEvent(project.getStatus(), null));
+    }
+
+    private void publishStatusChange(ProjectStatus previousStatus, ProjectStatus newStatus) {
+        if (previousStatus != newStatus) {
+            eventPublisher.publishEvent(new ProjectStatusChangedEvent(previousStatus, newStatus));
         }
-        projectRepository.deleteById(id);
     }
 
     public void assignProjectsToSupervisors() {
@@ -160,7 +191,7 @@ public class ProjectService {
         }
     }
 
-    private ProjectDTO convertToDTO(Project project) {
+    ProjectDTO convertToDTO(Project project) {
         ProjectDTO dto = new ProjectDTO();
         dto.setId(project.getId());
         dto.setTitle(project.getTitle());
@@ -0,0 +1,22 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.ProjectStatus;
+
+/**
+ * Published when a project is created (previousStatus null), changes status,
+ * or is deleted (newStatus null).
+ */
+public class ProjectStatusChangedEvent {
+
+    private final ProjectStatus previousStatus;
+    private final ProjectStatus newStatus;
+
+    public ProjectStatusChangedEvent(ProjectStatus previousStatus, ProjectStatus newStatus) {
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+    }
+
+    public ProjectStatus getPreviousStatus() { return previousStatus; }
+
+    public ProjectStatus getNewStatus() { return newStatus; }
+}
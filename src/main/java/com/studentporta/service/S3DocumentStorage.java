@@ -0,0 +1,144 @@
+package com.studentporta.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Keeps objects in a bucket of any S3-compatible service (AWS, MinIO, Ceph).
+ * Reads are ranged GETs whose response stream is handed straight to the
+ * caller, so downloads never hold more than a socket buffer in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "documents.storage.type", havingValue = "s3")
+public class S3DocumentStorage implements DocumentStorage {
+
+    @Value("${documents.storage.s3.bucket}")
+    private String bucket;
+
+    @Value("${documents.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${documents.storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${documents.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${documents.storage.s3.secret-key:}")
+    private String secretKey;
+
+    // MinIO and most self-hosted services only resolve bucket names in the path
+    @Value("${documents.storage.s3.path-style-access:true}")
+    private boolean pathStyleAccess;
+
+    private S3Client client;
+
+    @PostConstruct
+    void init() {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(pathStyleAccess)
+                        .chunkedEncodingEnabled(false)
+                        .build())
+                // Not every S3-compatible service understands the newer flexible checksums
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        if (!accessKey.isBlank()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        }
+        client = builder.build();
+    }
+
+    @PreDestroy
+    void close() {
+        client.close();
+    }
+
+    @Override
+    public void put(String key, Path stagedFile) throws IOException {
+        long size = Files.size(stagedFile);
+        try {
+            client.putObject(request -> request.bucket(bucket).key(key).contentLength(size),
+                    RequestBody.fromFile(stagedFile));
+        } catch (S3Exception e) {
+            throw new IOException("Could not store object " + key, e);
+        } finally {
+            Files.deleteIfExists(stagedFile);
+        }
+    }
+
+    @Override
+    public Optional<ObjectInfo> stat(String key) throws IOException {
+        try {
+            HeadObjectResponse head = client.headObject(request -> request.bucket(bucket).key(key));
+            return Optional.of(new ObjectInfo(head.contentLength(), head.lastModified().toEpochMilli()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            // HEAD responses carry no body, so a missing key arrives as a bare 404
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("Could not read metadata of " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        try {
+            return client.getObject(request -> request.bucket(bucket).key(key)
+                    .range("bytes=" + offset + "-" + (offset + length - 1)));
+        } catch (S3Exception e) {
+            throw new IOException("Could not read object " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            client.deleteObject(request -> request.bucket(bucket).key(key));
+        } catch (S3Exception e) {
+            throw new IOException("Could not delete object " + key, e);
+        }
+    }
+
+    // ListObjectsV2 returns keys in UTF-8 binary order and pages are fetched as the stream is consumed
+    @Override
+    public Stream<String> listKeys() {
+        return client.listObjectsV2Paginator(request -> request.bucket(bucket))
+                .contents()
+                .stream()
+                .map(S3Object::key);
+    }
+}
@@ -0,0 +1,153 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.RevokedToken;
+import com.studentporta.respository.RevokedTokenRepository;
+import com.studentporta.respository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether a verified token has been revoked without touching the
+ * database on the common path. Individual tokens are tracked by jti in a
+ * Bloom filter rebuilt from the revoked_tokens table; "log out everywhere"
+ * bumps the user's token version and older tokens stop being accepted.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter revokedJtis = new BloomFilter(1024, 0.01);
+    private final Map<Long, Integer> tokenVersions = new ConcurrentHashMap<>();
+    // Local revocations a rebuild has not yet seen in the table, keyed by jti with the token's expiry
+    private final Map<String, LocalDateTime> recentRevocations = new ConcurrentHashMap<>();
+    private final LongAdder bloomPositives = new LongAdder();
+    private final LongAdder confirmedRevocations = new LongAdder();
+
+    // Runs at startup and then periodically to pick up revocations made on other nodes
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:60000}",
+            initialDelayString = "${jwt.revocation.rebuild-interval-ms:60000}")
+    @Transactional
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+
+        List<String> jtis = revokedTokenRepository.findActiveJtis(now);
+        BloomFilter filter = new BloomFilter(Math.max(1024, jtis.size() * 2), falsePositiveRate);
+        jtis.forEach(filter::put);
+        revokedJtis = filter;
+
+        // A revoke() racing this rebuild may have written into the old filter, or committed after the
+        // query ran; its jti is recorded before the filter write, so replaying the map after the swap covers it
+        Set<String> seen = new HashSet<>(jtis);
+        recentRevocations.forEach((jti, expiresAt) -> {
+            if (seen.contains(jti) || !expiresAt.isAfter(now)) {
+                recentRevocations.remove(jti, expiresAt);
+            } else {
+                filter.put(jti);
+            }
+        });
+
+        Map<Long, Integer> versions = new HashMap<>();
+        for (Object[] row : userRepository.findTokenVersions()) {
+            versions.put((Long) row[0], (Integer) row[1]);
+        }
+        tokenVersions.keySet().retainAll(versions.keySet());
+        tokenVersions.putAll(versions);
+
+        log.debug("Revocation filter rebuilt with {} tokens and {} user versions", jtis.size(), versions.size());
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Long userId = claims.get("uid", Long.class);
+        if (userId != null) {
+            Integer current = tokenVersions.get(userId);
+            if (current != null) {
+                Integer tokenVersion = claims.get("ver", Integer.class);
+                if (tokenVersion == null || tokenVersion < current) {
+                    return true;
+                }
+            }
+        }
+
+        String jti = claims.getId();
+        if (jti == null || !revokedJtis.mightContain(jti)) {
+            return false;
+        }
+
+        // Either really revoked or a Bloom false positive; only this case reaches the database
+        bloomPositives.increment();
+        boolean revoked = revokedTokenRepository.existsByJti(jti);
+        if (revoked) {
+            confirmedRevocations.increment();
+        }
+        return revoked;
+    }
+
+    @Transactional
+    public void revoke(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null) {
+            // Tokens issued before jti existed can only be revoked per user
+            Long userId = claims.get("uid", Long.class);
+            if (userId != null) {
+                revokeAllForUser(userId);
+            }
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        if (!revokedTokenRepository.existsByJti(jti)) {
+            revokedTokenRepository.save(new RevokedToken(jti, claims.get("uid", Long.class), expiresAt));
+        }
+        recentRevocations.put(jti, expiresAt);
+        revokedJtis.put(jti);
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        if (userRepository.incrementTokenVersion(userId) == 0) {
+            throw new RuntimeException("User not found with id: " + userId);
+        }
+        userRepository.findTokenVersionById(userId)
+                .ifPresent(version -> tokenVersions.put(userId, version));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("bloomBits", revokedJtis.getBitCount());
+        stats.put("bloomHashes", revokedJtis.getHashCount());
+        stats.put("pendingRevocations", recentRevocations.size());
+        stats.put("usersWithBumpedVersion", tokenVersions.size());
+        stats.put("bloomPositives", bloomPositives.sum());
+        stats.put("confirmedRevocations", confirmedRevocations.sum());
+        return stats;
+    }
+}
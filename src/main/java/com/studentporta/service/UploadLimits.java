@@ -0,0 +1,38 @@
+package com.studentporta.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Per-role upload size limits, read from {@code documents.upload.max-bytes.<role>}
+ * with {@code documents.upload.max-bytes.default} as the fallback.
+ */
+@Component
+public class UploadLimits {
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${documents.upload.max-bytes.default:52428800}")
+    private long defaultMaxBytes;
+
+    public long maxBytesFor(Collection<? extends GrantedAuthority> authorities) {
+        long max = -1;
+        for (GrantedAuthority authority : authorities) {
+            String role = authority.getAuthority();
+            if (role.startsWith("ROLE_")) {
+                Long limit = environment.getProperty(
+                        "documents.upload.max-bytes." + role.substring(5).toLowerCase(), Long.class);
+                if (limit != null) {
+                    max = Math.max(max, limit);
+                }
+            }
+        }
+        return max >= 0 ? max : defaultMaxBytes;
+    }
+}
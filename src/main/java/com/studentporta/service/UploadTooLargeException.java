@@ -0,0 +1,19 @@
+package com.studentporta.service;
+
+/**
+ * Thrown when an upload exceeds the size limit for the uploader's role.
+ * Controllers translate it into a 413.
+ */
+public class UploadTooLargeException extends RuntimeException {
+
+    private final long maxBytes;
+
+    public UploadTooLargeException(long maxBytes) {
+        super("Upload exceeds the limit of " + maxBytes + " bytes");
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,22 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.Role;
+
+/**
+ * Published when a user is created (previousRole null), changes role,
+ * or is deleted (newRole null).
+ */
+public class UserRoleChangedEvent {
+
+    private final Role previousRole;
+    private final Role newRole;
+
+    public UserRoleChangedEvent(Role previousRole, Role newRole) {
+        this.previousRole = previousRole;
+        this.newRole = newRole;
+    }
+
+    public Role getPreviousRole() { return previousRole; }
+
+    public Role getNewRole() { return newRole; }
+}
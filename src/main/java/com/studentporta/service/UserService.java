@@ -1,15 +1,19 @@
 package com.studentporta.service;
 
+import com.studentporta.dto.KeysetCursor;
+import com.studentporta.dto.KeysetPage;
 import com.studentporta.dto.UserDTO;
+import com.studentporta.entity.ProjectStatus;
 import com.studentporta.entity.Role;
 import com.studentporta.entity.User;
+import com.studentporta.respository.ProjectRepository;
 import com.studentporta.respository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,7 +30,16 @@ public class UserService implements UserDetailsService {
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PaginationSettings paginationSettings;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -46,6 +59,18 @@ public class UserService implements UserDetailsService {
                 .collect(Collectors.toList());
     }
 
+    public KeysetPage<UserDTO> getUsersPage(String cursor, Integer limit) {
+        int size = paginationSettings.resolveLimit(cursor, limit);
+        List<User> rows;
+        if (cursor == null) {
+            rows = userRepository.findFirstKeysetPage(paginationSettings.probe(size));
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = userRepository.findKeysetPageAfter(after.getCreatedAt(), after.getId(), paginationSettings.probe(size));
+        }
+        return KeysetPage.of(rows, size, this::convertToDTO, u -> KeysetCursor.of(u.getCreatedAt(), u.getId()));
+    }
+
     public Optional<UserDTO> getUserById(Long id) {
         return userRepository.findById(id)
                 .map(this::convertToDTO);
@@ -83,11 +108,17 @@ public class UserService implements UserDetailsService {
             throw new RuntimeException("Email is already in use!");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserRoleChangedEvent(null, savedUser.getRole()));
         return convertToDTO(savedUser);
     }
 
+    public void upgradePasswordHash(User user, String rawPassword) {
+        user.setPassword(passwordHashingService.encode(rawPassword));
+        userRepository.save(user);
+    }
+
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
@@ -95,19 +126,28 @@ public class UserService implements UserDetailsService {
         user.setFirstName(userDTO.getFirstName());
         user.setLastName(userDTO.getLastName());
         user.setEmail(userDTO.getEmail());
+        Role previousRole = user.getRole();
         user.setRole(userDTO.getRole());
         user.setFaculty(userDTO.getFaculty());
         user.setSupervisorName(userDTO.getSupervisorName());
 
         User updatedUser = userRepository.save(user);
+        if (previousRole != updatedUser.getRole()) {
+            eventPublisher.publishEvent(new UserRoleChangedEvent(previousRole, updatedUser.getRole()));
+        }
         return convertToDTO(updatedUser);
     }
 
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+
+        // Projects owned or supervised by the user are removed by cascade
+        List<ProjectStatus> cascadedProjects = projectRepository.findStatusesByStudentOrFaculty(id);
+
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserRoleChangedEvent(user.getRole(), null));
+        cascadedProjects.forEach(status -> eventPublisher.publishEvent(new ProjectStatusChangedEvent(status, null)));
     }
 
     public boolean existsByUsername(String username) {
@@ -167,7 +207,7 @@ public class UserService implements UserDetailsService {
         return student.getSupervisor() != null && student.getSupervisor().getId().equals(supervisorId);
     }
 
-    private UserDTO convertToDTO(User user) {
+    UserDTO convertToDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
         dto.setUsername(user.getUsername());
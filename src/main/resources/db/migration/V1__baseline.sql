@@ -0,0 +1,91 @@
+-- Schema as Hibernate created it (ddl-auto=update) for the original entities.
+-- Existing databases are baselined at this version and skip this script; everything
+-- added to the entities since then lives in later migrations so it reaches them too.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    role VARCHAR(255) NOT NULL CHECK (role IN ('STUDENT', 'FACULTY', 'SUPERVISOR', 'ADMIN')),
+    faculty VARCHAR(255),
+    supervisor_name VARCHAR(255),
+    supervisor_id BIGINT,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT fk_users_supervisor FOREIGN KEY (supervisor_id) REFERENCES users (id)
+);
+
+CREATE TABLE projects (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    objective TEXT,
+    tools TEXT,
+    description TEXT NOT NULL,
+    category VARCHAR(50),
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'APPROVED', 'IN_PROGRESS', 'COMPLETED', 'REJECTED')),
+    student_id BIGINT NOT NULL,
+    faculty_id BIGINT,
+    progress INTEGER NOT NULL CHECK (progress >= 0 AND progress <= 100),
+    start_date DATE,
+    end_date DATE,
+    resources TEXT,
+    duration_months INTEGER,
+    github_link VARCHAR(255),
+    report_file VARCHAR(255),
+    screenshots TEXT,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT fk_projects_student FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fk_projects_faculty FOREIGN KEY (faculty_id) REFERENCES users (id)
+);
+
+CREATE TABLE feedback (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    project_id BIGINT,
+    faculty_id BIGINT,
+    comment TEXT NOT NULL,
+    rating INTEGER CHECK (rating >= 1 AND rating <= 5),
+    created_at TIMESTAMP(6),
+    CONSTRAINT fk_feedback_project FOREIGN KEY (project_id) REFERENCES projects (id),
+    CONSTRAINT fk_feedback_faculty FOREIGN KEY (faculty_id) REFERENCES users (id)
+);
+
+CREATE TABLE progress_updates (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    project_id BIGINT NOT NULL,
+    week_number INTEGER NOT NULL CHECK (week_number >= 1),
+    update_description TEXT NOT NULL,
+    feedback TEXT,
+    timestamp TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_progress_updates_project FOREIGN KEY (project_id) REFERENCES projects (id)
+);
+
+CREATE TABLE evaluations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    project_id BIGINT NOT NULL,
+    final_score INTEGER NOT NULL CHECK (final_score >= 0 AND final_score <= 100),
+    final_comment TEXT NOT NULL,
+    timestamp TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_evaluations_project FOREIGN KEY (project_id) REFERENCES projects (id)
+);
+
+CREATE TABLE documents (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    description TEXT,
+    file_path VARCHAR(255) NOT NULL,
+    file_name VARCHAR(255),
+    file_size BIGINT,
+    file_type VARCHAR(255),
+    supervisor_id BIGINT NOT NULL,
+    student_id BIGINT,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT fk_documents_supervisor FOREIGN KEY (supervisor_id) REFERENCES users (id),
+    CONSTRAINT fk_documents_student FOREIGN KEY (student_id) REFERENCES users (id)
+);
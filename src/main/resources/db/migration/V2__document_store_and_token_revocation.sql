@@ -0,0 +1,45 @@
+-- Columns and tables added for token revocation, the content-addressed document store,
+-- previews and compression at rest. Databases that ran those versions with ddl-auto=update
+-- already have some or all of them, so every statement is idempotent.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    jti VARCHAR(64) NOT NULL,
+    user_id BIGINT,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6),
+    CONSTRAINT uk_revoked_tokens_jti UNIQUE (jti)
+);
+
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS sha256 VARCHAR(64);
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS content_encoding VARCHAR(16);
+
+CREATE TABLE IF NOT EXISTS document_blobs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sha256 VARCHAR(64) NOT NULL,
+    storage_key VARCHAR(512) NOT NULL,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT uk_document_blobs_sha256 UNIQUE (sha256)
+);
+
+-- Added after document_blobs first shipped
+ALTER TABLE document_blobs ADD COLUMN IF NOT EXISTS codec VARCHAR(16);
+ALTER TABLE document_blobs ADD COLUMN IF NOT EXISTS stored_size BIGINT;
+
+CREATE TABLE IF NOT EXISTS document_previews (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sha256 VARCHAR(64) NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'PROCESSING', 'READY', 'UNSUPPORTED', 'FAILED')),
+    source_name VARCHAR(255),
+    source_type VARCHAR(255),
+    page_count INTEGER,
+    text_snippet VARCHAR(2000),
+    thumbnail BYTEA,
+    error VARCHAR(500),
+    updated_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_document_previews_sha256 UNIQUE (sha256)
+);
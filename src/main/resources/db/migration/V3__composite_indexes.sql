@@ -0,0 +1,20 @@
+-- Composite indexes matching the list queries: filter column first, then the keyset sort order.
+
+CREATE INDEX IF NOT EXISTS idx_documents_supervisor_created ON documents (supervisor_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_documents_student_created ON documents (student_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_evaluations_project_timestamp ON evaluations (project_id, timestamp DESC);
+CREATE INDEX IF NOT EXISTS idx_projects_faculty_status ON projects (faculty_id, status);
+
+-- ProgressUpdateService already rejects a second update for the same week, but concurrent requests could
+-- both pass that check. Keep the first update for each week so the constraint below can be added.
+DELETE FROM progress_updates p
+WHERE EXISTS (SELECT 1 FROM progress_updates q
+              WHERE q.project_id = p.project_id AND q.week_number = p.week_number AND q.id < p.id);
+
+-- The constraint's index also serves the per-project week ordering.
+ALTER TABLE progress_updates ADD CONSTRAINT uk_progress_updates_project_week UNIQUE (project_id, week_number);
+
+-- Left-prefix duplicates of the indexes above, created by database_schema.sql
+DROP INDEX IF EXISTS idx_evaluations_project_id;
+DROP INDEX IF EXISTS idx_progress_updates_project_id;
+DROP INDEX IF EXISTS idx_projects_supervisor_id;
@@ -0,0 +1,11 @@
+-- Users and projects are listed by (created_at, id); a NULL sort key cannot be encoded in a
+-- keyset cursor and would drop out of every page after the first. Rows inserted outside the
+-- application may lack it, so backfill and let the database fill it from now on.
+
+UPDATE users SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE users ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE users ALTER COLUMN created_at SET NOT NULL;
+
+UPDATE projects SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE projects ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE projects ALTER COLUMN created_at SET NOT NULL;
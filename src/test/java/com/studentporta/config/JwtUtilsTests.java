@@ -0,0 +1,48 @@
+package com.studentporta.config;
+
+import com.studentporta.entity.Role;
+import com.studentporta.entity.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTests {
+
+	private JwtUtils jwtUtils;
+
+	@BeforeEach
+	void setUp() {
+		jwtUtils = new JwtUtils();
+		ReflectionTestUtils.setField(jwtUtils, "secret", "test-secret-key-that-is-long-enough-for-hs256-signing");
+		ReflectionTestUtils.setField(jwtUtils, "expiration", 60_000L);
+		jwtUtils.init();
+	}
+
+	@Test
+	void parseTokenReturnsAllClaimsFromOneParse() {
+		User user = new User("alice", "alice@example.com", "secret", "Alice", "Smith", Role.STUDENT);
+		user.setId(42L);
+
+		Optional<Claims> claims = jwtUtils.parseToken(jwtUtils.generateToken(user));
+
+		assertTrue(claims.isPresent());
+		assertEquals("alice", claims.get().getSubject());
+		assertEquals("STUDENT", claims.get().get("role", String.class));
+		assertEquals(42L, claims.get().get("uid", Long.class));
+	}
+
+	@Test
+	void parseTokenRejectsTamperedToken() {
+		String token = jwtUtils.generateToken("bob", Role.ADMIN);
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+		assertTrue(jwtUtils.parseToken(tampered).isEmpty());
+		assertFalse(jwtUtils.validateToken(tampered));
+		assertTrue(jwtUtils.validateToken(token));
+	}
+}
@@ -0,0 +1,74 @@
+package com.studentporta.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimpleCorsFilterTests {
+
+	private SimpleCorsFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		filter = new SimpleCorsFilter();
+		ReflectionTestUtils.setField(filter, "allowedOrigins", List.of("http://localhost:5173"));
+		ReflectionTestUtils.setField(filter, "allowedMethods", "GET, POST");
+		ReflectionTestUtils.setField(filter, "allowedHeaders", "Authorization, Content-Type");
+		ReflectionTestUtils.setField(filter, "exposedHeaders", "Content-Disposition");
+		ReflectionTestUtils.setField(filter, "allowCredentials", true);
+		ReflectionTestUtils.setField(filter, "maxAge", 86400L);
+		filter.init();
+	}
+
+	@Test
+	void preflightIsAnsweredWithoutCallingTheChain() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/api/projects");
+		request.addHeader("Origin", "http://localhost:5173");
+		request.addHeader("Access-Control-Request-Method", "POST");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, response, chain);
+
+		assertEquals(204, response.getStatus());
+		assertNull(chain.getRequest());
+		assertEquals("http://localhost:5173", response.getHeader("Access-Control-Allow-Origin"));
+		assertEquals("86400", response.getHeader("Access-Control-Max-Age"));
+		assertEquals("GET, POST", response.getHeader("Access-Control-Allow-Methods"));
+	}
+
+	@Test
+	void actualRequestGetsOriginHeadersAndContinues() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects");
+		request.addHeader("Origin", "http://localhost:5173");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, response, chain);
+
+		assertNotNull(chain.getRequest());
+		assertEquals("http://localhost:5173", response.getHeader("Access-Control-Allow-Origin"));
+		assertEquals("true", response.getHeader("Access-Control-Allow-Credentials"));
+		assertNull(response.getHeader("Access-Control-Max-Age"));
+	}
+
+	@Test
+	void unknownOriginPreflightIsRejected() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/api/projects");
+		request.addHeader("Origin", "http://evil.example");
+		request.addHeader("Access-Control-Request-Method", "GET");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, new MockFilterChain());
+
+		assertEquals(403, response.getStatus());
+		assertNull(response.getHeader("Access-Control-Allow-Origin"));
+	}
+}
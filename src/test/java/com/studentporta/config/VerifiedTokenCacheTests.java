@@ -0,0 +1,75 @@
+package com.studentporta.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTests {
+
+	private VerifiedTokenCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new VerifiedTokenCache();
+		ReflectionTestUtils.setField(cache, "maxSize", 20);
+	}
+
+	@Test
+	void returnsCachedClaimsAndCountsHitsAndMisses() {
+		Claims claims = claims("alice", 60_000);
+		cache.put("token-a", claims);
+
+		assertSame(claims, cache.get("token-a"));
+		assertNull(cache.get("token-b"));
+		assertEquals(1L, cache.getStats().get("hits"));
+		assertEquals(1L, cache.getStats().get("misses"));
+	}
+
+	@Test
+	void expiredTokensAreMissesAndSweptAway() {
+		cache.put("expired", claims("alice", -1_000));
+		cache.put("other-expired", claims("bob", -1_000));
+		cache.put("valid", claims("carol", 60_000));
+
+		assertNull(cache.get("expired"));
+		cache.removeExpired();
+
+		assertEquals(1, cache.getStats().get("size"));
+		assertNotNull(cache.get("valid"));
+	}
+
+	@Test
+	void fullCacheEvictsABatchInsteadOfOneEntryPerPut() {
+		for (int i = 0; i < 20; i++) {
+			cache.put("token-" + i, claims("user" + i, 60_000));
+		}
+		assertEquals(0L, cache.getStats().get("evictions"));
+
+		cache.put("token-20", claims("user20", 60_000));
+
+		// A tenth of the cache went at once, so the next puts fit without evicting
+		assertEquals(2L, cache.getStats().get("evictions"));
+		assertEquals(19, cache.getStats().get("size"));
+		assertNotNull(cache.get("token-20"));
+		cache.put("token-21", claims("user21", 60_000));
+		assertEquals(2L, cache.getStats().get("evictions"));
+		assertEquals(20, cache.getStats().get("size"));
+	}
+
+	@Test
+	void tokensWithoutExpiryAreNotCached() {
+		cache.put("forever", Jwts.claims().subject("alice").build());
+
+		assertNull(cache.get("forever"));
+	}
+
+	private static Claims claims(String subject, long expiresInMs) {
+		return Jwts.claims().subject(subject).expiration(new Date(System.currentTimeMillis() + expiresInMs)).build();
+	}
+}
@@ -0,0 +1,123 @@
+package com.studentporta.controller;
+
+import com.studentporta.dto.ChunkedUploadRequest;
+import com.studentporta.dto.DocumentDTO;
+import com.studentporta.service.ChunkedUploadService;
+import com.studentporta.service.ContentHashMismatchException;
+import com.studentporta.service.DocumentService;
+import com.studentporta.service.UploadLimits;
+import com.studentporta.service.UploadTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DocumentControllerTests {
+
+	private DocumentController controller;
+	private ChunkedUploadService chunkedUploadService;
+	private DocumentService documentService;
+	private Authentication alice;
+
+	@BeforeEach
+	void setUp() {
+		controller = new DocumentController();
+		chunkedUploadService = mock(ChunkedUploadService.class);
+		documentService = mock(DocumentService.class);
+		UploadLimits uploadLimits = mock(UploadLimits.class);
+		when(uploadLimits.maxBytesFor(any())).thenReturn(1024L);
+		ReflectionTestUtils.setField(controller, "chunkedUploadService", chunkedUploadService);
+		ReflectionTestUtils.setField(controller, "documentService", documentService);
+		ReflectionTestUtils.setField(controller, "uploadLimits", uploadLimits);
+		alice = new UsernamePasswordAuthenticationToken("alice", null,
+				AuthorityUtils.createAuthorityList("ROLE_STUDENT"));
+	}
+
+	@Test
+	void completeWithMissingChunksIsAConflict() throws Exception {
+		when(chunkedUploadService.complete("u1", "alice")).thenThrow(new IllegalStateException("Missing chunks: [1]"));
+
+		assertEquals(409, controller.completeChunkedUpload("u1", alice).getStatusCode().value());
+	}
+
+	@Test
+	void completeOfUnknownSessionIsNotFound() throws Exception {
+		when(chunkedUploadService.complete("u1", "alice")).thenThrow(new RuntimeException("Upload session not found"));
+
+		assertEquals(404, controller.completeChunkedUpload("u1", alice).getStatusCode().value());
+	}
+
+	@Test
+	void startingBeyondTheSessionCapIsTooManyRequests() throws Exception {
+		when(chunkedUploadService.start(any(), any(), anyLong())).thenThrow(new IllegalStateException("Too many open uploads"));
+
+		assertEquals(429, controller.startChunkedUpload(new ChunkedUploadRequest(), alice).getStatusCode().value());
+	}
+
+	@Test
+	void streamUploadDeclaringMoreThanTheLimitIsRejectedBeforeReading() throws Exception {
+		MockHttpServletRequest request = streamRequest(2048);
+
+		assertEquals(413, uploadStream(request, null).getStatusCode().value());
+		verifyNoInteractions(documentService);
+	}
+
+	@Test
+	void streamUploadExceedingTheLimitWhileReadingIsTooLarge() throws Exception {
+		when(documentService.uploadDocumentStream(any(), any(), any(), any(), any(), any(), any(), anyLong(), any()))
+				.thenThrow(new UploadTooLargeException(1024));
+
+		assertEquals(413, uploadStream(streamRequest(-1), null).getStatusCode().value());
+	}
+
+	@Test
+	void streamUploadIsLimitedByTheUsersRole() throws Exception {
+		uploadStream(streamRequest(10), null);
+
+		verify(documentService).uploadDocumentStream(any(), eq("thesis.pdf"), eq("application/pdf"), eq("Thesis"),
+				any(), eq(1L), any(), eq(1024L), any());
+	}
+
+	@Test
+	void streamUploadNotMatchingTheDeclaredHashIsUnprocessable() throws Exception {
+		String sha256 = "0".repeat(64);
+		when(documentService.uploadDocumentStream(any(), any(), any(), any(), any(), any(), any(), anyLong(), eq(sha256)))
+				.thenThrow(new ContentHashMismatchException());
+
+		assertEquals(422, uploadStream(streamRequest(10), sha256).getStatusCode().value());
+	}
+
+	@Test
+	void multipartUploadOverTheLimitIsTooLarge() throws Exception {
+		when(documentService.uploadDocument(any(), any(), any(), any(), any(), anyLong()))
+				.thenThrow(new UploadTooLargeException(1024));
+
+		assertEquals(413, controller.uploadDocument(new MockMultipartFile("file", new byte[2048]), "Thesis", "",
+				1L, null, alice).getStatusCode().value());
+	}
+
+	private ResponseEntity<DocumentDTO> uploadStream(MockHttpServletRequest request, String sha256) {
+		return controller.uploadDocumentStream("thesis.pdf", "Thesis", null, 1L, null, sha256, request, alice);
+	}
+
+	// A negative length leaves the body unset, as with chunked transfer where the length is not declared
+	private static MockHttpServletRequest streamRequest(int contentLength) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/documents/upload/stream");
+		request.setContentType("application/pdf");
+		if (contentLength >= 0) {
+			request.setContent(new byte[contentLength]);
+		}
+		return request;
+	}
+}
@@ -0,0 +1,115 @@
+package com.studentporta.controller;
+
+import com.studentporta.config.JwtUtils;
+import com.studentporta.entity.Role;
+import com.studentporta.entity.User;
+import com.studentporta.respository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Goes through the embedded container's multipart parsing, which applies its own size limits before the controller
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:multipart;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.flyway.enabled=false",
+		"documents.upload.max-bytes.supervisor=3000000"
+})
+class DocumentMultipartUploadTests {
+
+	@TempDir
+	static Path storageRoot;
+
+	@DynamicPropertySource
+	static void storage(DynamicPropertyRegistry registry) {
+		registry.add("documents.storage.local.root", () -> storageRoot.toString());
+		registry.add("documents.storage.staging-dir", () -> storageRoot.resolve("tmp").toString());
+	}
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Autowired
+	private Environment environment;
+
+	private User supervisor;
+
+	@BeforeEach
+	void setUp() {
+		supervisor = userRepository.findByUsername("super").orElseGet(() -> userRepository.save(
+				new User("super", "super@example.com", "password", "First", "Last", Role.SUPERVISOR)));
+	}
+
+	@Test
+	void fileOverTheServletDefaultButWithinTheRoleLimitIsAccepted() {
+		ResponseEntity<String> response = upload(2_000_000);
+
+		assertEquals(200, response.getStatusCode().value());
+	}
+
+	@Test
+	void fileOverTheRoleLimitIsRejectedByTheRoleLimit() {
+		ResponseEntity<String> response = upload(4_000_000);
+
+		assertEquals(413, response.getStatusCode().value());
+	}
+
+	@Test
+	void multipartLimitsAdmitTheLargestRoleLimit() {
+		long largestRoleLimit = Stream.of("default", "admin", "supervisor", "faculty")
+				.mapToLong(role -> Long.parseLong(environment.getProperty("documents.upload.max-bytes." + role, "0")))
+				.max().orElseThrow();
+
+		assertTrue(DataSize.parse(environment.getProperty("spring.servlet.multipart.max-file-size")).toBytes()
+				>= largestRoleLimit);
+		assertTrue(DataSize.parse(environment.getProperty("spring.servlet.multipart.max-request-size")).toBytes()
+				>= largestRoleLimit);
+	}
+
+	private ResponseEntity<String> upload(int size) {
+		MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+		form.add("file", new ByteArrayResource(new byte[size]) {
+			@Override
+			public String getFilename() {
+				return "report.bin";
+			}
+		});
+		form.add("title", "Report");
+		form.add("description", "Large report");
+		form.add("supervisorId", supervisor.getId().toString());
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+		headers.setBearerAuth(jwtUtils.generateToken(supervisor));
+		return restTemplate.postForEntity("/api/documents/upload", new HttpEntity<>(form, headers), String.class);
+	}
+}
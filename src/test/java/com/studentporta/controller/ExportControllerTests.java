@@ -0,0 +1,61 @@
+package com.studentporta.controller;
+
+import com.studentporta.service.ExportFormat;
+import com.studentporta.service.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExportControllerTests {
+
+	private ExportController controller;
+	private ExportService exportService;
+
+	@BeforeEach
+	void setUp() {
+		controller = new ExportController();
+		exportService = mock(ExportService.class);
+		ReflectionTestUtils.setField(controller, "exportService", exportService);
+	}
+
+	@Test
+	void unknownFormatIsABadRequest() {
+		ResponseEntity<StreamingResponseBody> response = controller.exportUsers("xlsx");
+
+		assertEquals(400, response.getStatusCode().value());
+		verifyNoInteractions(exportService);
+	}
+
+	@Test
+	void csvIsServedAsAnAttachment() throws Exception {
+		ResponseEntity<StreamingResponseBody> response = controller.exportProjects("CSV");
+
+		assertEquals(200, response.getStatusCode().value());
+		assertEquals("text/csv", response.getHeaders().getContentType().toString());
+		assertEquals("attachment; filename=\"projects.csv\"",
+				response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.getBody().writeTo(out);
+		verify(exportService).exportProjects(eq(ExportFormat.CSV), any());
+	}
+
+	@Test
+	void ndjsonIsServedLineDelimited() throws Exception {
+		ResponseEntity<StreamingResponseBody> response = controller.exportFeedback("ndjson");
+
+		assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+		response.getBody().writeTo(new ByteArrayOutputStream());
+		verify(exportService).exportFeedback(eq(ExportFormat.NDJSON), any());
+	}
+}
@@ -0,0 +1,193 @@
+package com.studentporta.controller;
+
+import com.studentporta.service.DocumentStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDownloadWriterTests {
+
+	@TempDir
+	Path tempDir;
+
+	private FileDownloadWriter writer;
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		writer = new FileDownloadWriter();
+		ReflectionTestUtils.setField(writer, "sendfileEnabled", true);
+		ReflectionTestUtils.setField(writer, "sendfileMinBytes", 4L);
+		file = Files.writeString(tempDir.resolve("report.pdf"), "0123456789", StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void servesWholeFileWithValidators() throws Exception {
+		MockHttpServletResponse response = download(new MockHttpServletRequest("GET", "/"));
+
+		assertEquals(200, response.getStatus());
+		assertEquals("0123456789", response.getContentAsString());
+		assertEquals(10, response.getContentLengthLong());
+		assertEquals("bytes", response.getHeader("Accept-Ranges"));
+		assertNotNull(response.getHeader("ETag"));
+		assertNotNull(response.getHeader("Last-Modified"));
+	}
+
+	@Test
+	void servesSingleRange() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=2-5");
+
+		MockHttpServletResponse response = download(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("2345", response.getContentAsString());
+		assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+	}
+
+	@Test
+	void rejectsRangeBeyondEndOfFile() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=20-");
+
+		MockHttpServletResponse response = download(request);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */10", response.getHeader("Content-Range"));
+	}
+
+	@Test
+	void ignoresRangeWhenIfRangeIsStale() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=2-5");
+		request.addHeader("If-Range", "\"stale\"");
+
+		MockHttpServletResponse response = download(request);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("0123456789", response.getContentAsString());
+	}
+
+	@Test
+	void answersNotModifiedForMatchingEtag() throws Exception {
+		String etag = download(new MockHttpServletRequest("GET", "/")).getHeader("ETag");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("If-None-Match", "W/" + etag);
+
+		MockHttpServletResponse response = download(request);
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void handsLargeBodiesToSendfileWhenSupported() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		request.addHeader("Range", "bytes=4-");
+
+		MockHttpServletResponse response = download(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+		assertEquals(file.toRealPath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		assertEquals(4L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+	}
+
+	@Test
+	void reportsMissingFile() throws Exception {
+		assertFalse(writer.write(tempDir.resolve("missing.pdf"), "1", "missing.pdf",
+				new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse()));
+	}
+
+	@Test
+	void passesGzipThroughToClientsThatAcceptIt() throws Exception {
+		DocumentStorage storage = gzipStorage("0123456789".repeat(100));
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Accept-Encoding", "br, gzip;q=0.8");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertTrue(writer.write(storage, "ab/cd/abcd", "gzip", 1000, "7", "notes.txt", request, response));
+
+		assertEquals(200, response.getStatus());
+		assertEquals("gzip", response.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", response.getHeader("Vary"));
+		String body = new String(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))
+				.readAllBytes(), StandardCharsets.UTF_8);
+		assertEquals("0123456789".repeat(100), body);
+	}
+
+	@Test
+	void decompressesRangesAndForClientsWithoutGzip() throws Exception {
+		DocumentStorage storage = gzipStorage("0123456789".repeat(100));
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Accept-Encoding", "gzip");
+		request.addHeader("Range", "bytes=995-");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertTrue(writer.write(storage, "ab/cd/abcd", "gzip", 1000, "7", "notes.txt", request, response));
+
+		assertEquals(206, response.getStatus());
+		assertNull(response.getHeader("Content-Encoding"));
+		assertEquals("bytes 995-999/1000", response.getHeader("Content-Range"));
+		assertEquals("56789", response.getContentAsString());
+	}
+
+	// A remote-style backend holding one gzipped object
+	private static DocumentStorage gzipStorage(String content) throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+		byte[] stored = compressed.toByteArray();
+		return new DocumentStorage() {
+			@Override
+			public void put(String key, Path stagedFile) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Optional<ObjectInfo> stat(String key) {
+				return Optional.of(new ObjectInfo(stored.length, 1_700_000_000_000L));
+			}
+
+			@Override
+			public InputStream open(String key, long offset, long length) {
+				return new ByteArrayInputStream(stored, (int) offset, (int) length);
+			}
+
+			@Override
+			public void delete(String key) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Stream<String> listKeys() {
+				return Stream.of("ab/cd/abcd");
+			}
+		};
+	}
+
+	private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		assertTrue(writer.write(file, "7", "report.pdf", request, response));
+		return response;
+	}
+}
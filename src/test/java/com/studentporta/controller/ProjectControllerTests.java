@@ -0,0 +1,79 @@
+package com.studentporta.controller;
+
+import com.studentporta.dto.ProjectDTO;
+import com.studentporta.service.ProjectService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProjectControllerTests {
+
+	private static final Pageable DEFAULT_PAGEABLE = PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+	private ProjectController controller;
+	private ProjectService projectService;
+
+	@BeforeEach
+	void setUp() {
+		controller = new ProjectController();
+		projectService = mock(ProjectService.class);
+		when(projectService.getProjectsBySupervisorStudents(eq(7L), any(Pageable.class)))
+				.thenAnswer(invocation -> new PageImpl<ProjectDTO>(List.of(), invocation.getArgument(1), 0));
+		ReflectionTestUtils.setField(controller, "projectService", projectService);
+	}
+
+	@Test
+	void supervisorStudentsWithoutPagingParametersIsTheFullList() {
+		controller.getProjectsBySupervisorStudents(7L, null, null, DEFAULT_PAGEABLE);
+
+		Pageable requested = requestedPageable();
+		assertTrue(requested.isUnpaged());
+		assertEquals(Sort.by(Sort.Direction.DESC, "createdAt"), requested.getSort());
+	}
+
+	@Test
+	void supervisorStudentsWithPagingParametersIsPaged() {
+		Pageable pageable = PageRequest.of(2, 25, Sort.by("title"));
+
+		controller.getProjectsBySupervisorStudents(7L, 2, 25, pageable);
+
+		assertEquals(pageable, requestedPageable());
+	}
+
+	@Test
+	void unknownSortPropertyIsABadRequest() {
+		ResponseEntity<List<ProjectDTO>> response = controller.getProjectsBySupervisorStudents(7L, null, null,
+				PageRequest.of(0, 100, Sort.by("bogus")));
+
+		assertEquals(400, response.getStatusCode().value());
+		verify(projectService, never()).getProjectsBySupervisorStudents(any(), any(Pageable.class));
+	}
+
+	@Test
+	void serverErrorsAreNotReportedAsBadRequests() {
+		when(projectService.getProjectsBySupervisorStudents(eq(7L), any(Pageable.class)))
+				.thenThrow(new IllegalStateException("connection lost"));
+
+		assertThrows(IllegalStateException.class,
+				() -> controller.getProjectsBySupervisorStudents(7L, null, null, DEFAULT_PAGEABLE));
+	}
+
+	private Pageable requestedPageable() {
+		ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+		verify(projectService).getProjectsBySupervisorStudents(eq(7L), captor.capture());
+		return captor.getValue();
+	}
+}
@@ -0,0 +1,49 @@
+package com.studentporta.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTests {
+
+	@Test
+	void roundTripsEachKeyType() {
+		LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_000_000);
+
+		KeysetCursor byDate = KeysetCursor.decode(KeysetCursor.of(createdAt, 7L).encode());
+		KeysetCursor byPosition = KeysetCursor.decode(KeysetCursor.of(4, 8L).encode());
+
+		assertEquals(createdAt, byDate.getCreatedAt());
+		assertEquals(7L, byDate.getId());
+		assertEquals(4, byPosition.getPosition());
+		assertEquals(8L, byPosition.getId());
+	}
+
+	// Controllers turn IllegalArgumentException into 400; anything else would be a 500
+	@Test
+	void cursorFromAnotherListIsRejectedAsIllegalArgument() {
+		KeysetCursor byPosition = KeysetCursor.decode(KeysetCursor.of(4, 8L).encode());
+		KeysetCursor byId = KeysetCursor.decode(KeysetCursor.ofId(9L).encode());
+		KeysetCursor byDate = KeysetCursor.decode(KeysetCursor.of(LocalDateTime.now(), 1L).encode());
+
+		assertThrows(IllegalArgumentException.class, byPosition::getCreatedAt);
+		assertThrows(IllegalArgumentException.class, byId::getCreatedAt);
+		assertThrows(IllegalArgumentException.class, byDate::getPosition);
+	}
+
+	@Test
+	void tamperedTokensAreRejectedAsIllegalArgument() {
+		String noSeparator = Base64.getUrlEncoder().encodeToString("2025-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+		String badId = Base64.getUrlEncoder().encodeToString("2025-01-01T00:00|x".getBytes(StandardCharsets.UTF_8));
+		String badDate = Base64.getUrlEncoder().encodeToString("yesterday|5".getBytes(StandardCharsets.UTF_8));
+
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(noSeparator));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(badId));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(badDate).getCreatedAt());
+	}
+}
@@ -0,0 +1,108 @@
+package com.studentporta.respository;
+
+import com.studentporta.dto.DocumentDTO;
+import com.studentporta.entity.Document;
+import com.studentporta.entity.Role;
+import com.studentporta.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class DocumentRepositoryTests {
+
+	@Autowired
+	private DocumentRepository documentRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private Long studentId;
+	private List<Long> expectedFeed;
+
+	@BeforeEach
+	void setUp() {
+		User supervisor = persistUser("super", Role.SUPERVISOR, null);
+		User otherSupervisor = persistUser("other", Role.SUPERVISOR, null);
+		User student = persistUser("student", Role.STUDENT, supervisor);
+		User classmate = persistUser("classmate", Role.STUDENT, supervisor);
+
+		List<Document> visible = new ArrayList<>();
+		visible.add(persistDocument("General 1", supervisor, null));
+		visible.add(persistDocument("Feedback 1", supervisor, student));
+		persistDocument("Classmate feedback", supervisor, classmate);
+		visible.add(persistDocument("General 2", supervisor, null));
+		persistDocument("Other general", otherSupervisor, null);
+		visible.add(persistDocument("Co-supervisor note", otherSupervisor, student));
+		visible.add(persistDocument("Feedback 2", supervisor, student));
+		entityManager.flush();
+		entityManager.clear();
+
+		studentId = student.getId();
+		expectedFeed = visible.stream()
+				.sorted(Comparator.comparing(Document::getCreatedAt).thenComparing(Document::getId).reversed())
+				.map(Document::getId)
+				.toList();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void studentFeedIsOneStatementWithNamesFilledIn() {
+		List<DocumentDTO> feed = documentRepository.findFirstStudentFeedPage(studentId, PageRequest.of(0, 10));
+
+		assertEquals(expectedFeed, feed.stream().map(DocumentDTO::getId).toList());
+		for (DocumentDTO document : feed) {
+			assertEquals("First Last", document.getSupervisorName());
+			assertEquals(document.getStudentId() == null, document.getStudentName() == null);
+		}
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void studentFeedKeysetPagesWalkEveryDocumentOnce() {
+		List<Long> seen = new ArrayList<>();
+		List<DocumentDTO> page = documentRepository.findFirstStudentFeedPage(studentId, PageRequest.of(0, 2));
+		while (!page.isEmpty()) {
+			page.forEach(document -> seen.add(document.getId()));
+			DocumentDTO last = page.get(page.size() - 1);
+			page = documentRepository.findStudentFeedPageAfter(studentId, last.getCreatedAt(), last.getId(),
+					PageRequest.of(0, 2));
+		}
+
+		assertEquals(expectedFeed, seen);
+	}
+
+	private User persistUser(String username, Role role, User supervisor) {
+		User user = new User(username, username + "@example.com", "password", "First", "Last", role);
+		user.setSupervisor(supervisor);
+		entityManager.persist(user);
+		return user;
+	}
+
+	private Document persistDocument(String title, User supervisor, User student) {
+		Document document = new Document(title, null, "uploads/" + title, title + ".pdf", 10L, "application/pdf",
+				supervisor, student);
+		entityManager.persist(document);
+		return document;
+	}
+}
@@ -0,0 +1,68 @@
+package com.studentporta.respository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A database created by ddl-auto=update before Flyway: the original tables only, no history table.
+// Startup must baseline it at V1, bring it up to date and pass Hibernate's validation.
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+class LegacySchemaUpgradeTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void legacyDatabaseIsBaselinedAndUpgraded() {
+		List<String> history = jdbcTemplate.queryForList(
+				"SELECT \"version\" || ' ' || \"type\" FROM \"flyway_schema_history\" " +
+						"WHERE \"version\" IS NOT NULL AND \"success\" ORDER BY \"installed_rank\"", String.class);
+		assertEquals(List.of("1 BASELINE", "2 SQL", "3 SQL", "4 SQL"), history);
+
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT token_version FROM users WHERE id = 1", Integer.class));
+		// Inserted without created_at before V4
+		assertNotNull(jdbcTemplate.queryForObject("SELECT created_at FROM users WHERE id = 1", LocalDateTime.class));
+	}
+
+	@Test
+	void duplicateWeeksAreRemovedKeepingTheFirstUpdate() {
+		List<String> descriptions = jdbcTemplate.queryForList(
+				"SELECT update_description FROM progress_updates ORDER BY week_number", String.class);
+		assertEquals(List.of("Week 1", "Week 2"), descriptions);
+	}
+
+	@TestConfiguration
+	static class LegacyDatabase {
+
+		@Bean
+		FlywayMigrationStrategy legacyThenMigrate() {
+			return flyway -> {
+				Flyway.configure().configuration(flyway.getConfiguration()).target("1").load().migrate();
+				JdbcTemplate jdbc = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+				jdbc.update("DROP TABLE \"flyway_schema_history\"");
+				jdbc.update("INSERT INTO users (id, username, email, password, first_name, last_name, role) " +
+						"VALUES (1, 'student', 'student@example.com', 'password', 'First', 'Last', 'STUDENT')");
+				jdbc.update("INSERT INTO projects (id, title, description, status, student_id, progress) " +
+						"VALUES (1, 'Project', 'Description', 'PENDING', 1, 0)");
+				for (String[] row : new String[][] {{"1", "Week 1"}, {"1", "Week 1 again"}, {"2", "Week 2"}}) {
+					jdbc.update("INSERT INTO progress_updates (project_id, week_number, update_description, timestamp) " +
+							"VALUES (1, ?, ?, CURRENT_TIMESTAMP)", Integer.valueOf(row[0]), row[1]);
+				}
+				flyway.migrate();
+			};
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.studentporta.respository;
+
+import com.studentporta.entity.Project;
+import com.studentporta.entity.ProjectStatus;
+import com.studentporta.entity.Role;
+import com.studentporta.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProjectRepositoryTests {
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		User supervisor = persistUser("super", Role.SUPERVISOR, null);
+		for (int i = 0; i < 5; i++) {
+			User student = persistUser("student" + i, Role.STUDENT, supervisor);
+			Project project = new Project("Project " + i, "Objective", "Description", student, supervisor);
+			project.setStatus(i % 2 == 0 ? ProjectStatus.PENDING : ProjectStatus.APPROVED);
+			entityManager.persist(project);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findAllLoadsStudentAndFacultyInOneStatement() {
+		assertSingleStatement(() -> projectRepository.findAll());
+	}
+
+	@Test
+	void findByStatusLoadsStudentAndFacultyInOneStatement() {
+		assertSingleStatement(() -> projectRepository.findByStatus(ProjectStatus.PENDING));
+	}
+
+	@Test
+	void findByFacultyIdLoadsStudentAndFacultyInOneStatement() {
+		Long facultyId = projectRepository.findAll().get(0).getFaculty().getId();
+		entityManager.clear();
+		statistics.clear();
+
+		assertSingleStatement(() -> projectRepository.findByFacultyId(facultyId));
+	}
+
+	@Test
+	void supervisorViewIsOnePageQueryPlusCount() {
+		Long supervisorId = projectRepository.findAll().get(0).getFaculty().getId();
+		entityManager.clear();
+		statistics.clear();
+
+		Page<Project> page = projectRepository.findBySupervisorOfStudent(supervisorId,
+				PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "createdAt")));
+		page.forEach(project -> assertNotNull(project.getStudent().getFirstName()));
+
+		assertEquals(3, page.getNumberOfElements());
+		assertEquals(5, page.getTotalElements());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void keysetPagesWalkEveryProjectOnceInCreationOrder() {
+		List<Long> seen = new ArrayList<>();
+		List<Project> page = projectRepository.findFirstKeysetPage(PageRequest.of(0, 2));
+		while (!page.isEmpty()) {
+			page.forEach(project -> seen.add(project.getId()));
+			Project last = page.get(page.size() - 1);
+			page = projectRepository.findKeysetPageAfter(last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+		}
+
+		List<Long> expected = projectRepository.findAll(
+				Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")))
+				.stream().map(Project::getId).toList();
+		assertEquals(expected, seen);
+	}
+
+	@Test
+	void dashboardCountsComeFromOneGroupedStatement() {
+		List<Object[]> rows = projectRepository.countUsersByRoleAndProjectsByStatus();
+
+		long students = 0;
+		long pending = 0;
+		for (Object[] row : rows) {
+			if ("ROLE".equals(row[0]) && "STUDENT".equals(row[1])) {
+				students = ((Number) row[2]).longValue();
+			}
+			if ("STATUS".equals(row[0]) && "PENDING".equals(row[1])) {
+				pending = ((Number) row[2]).longValue();
+			}
+		}
+
+		assertEquals(5, students);
+		assertEquals(3, pending);
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	private void assertSingleStatement(Supplier<List<Project>> query) {
+		List<Project> projects = query.get();
+
+		// Touch the same associations ProjectService.convertToDTO reads
+		for (Project project : projects) {
+			assertNotNull(project.getStudent().getFirstName());
+			assertNotNull(project.getFaculty().getLastName());
+		}
+
+		assertFalse(projects.isEmpty());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void supervisorViewUnpagedReturnsEveryProject() {
+		Long supervisorId = projectRepository.findAll().get(0).getFaculty().getId();
+
+		Page<Project> page = projectRepository.findBySupervisorOfStudent(supervisorId,
+				Pageable.unpaged(Sort.by(Sort.Direction.DESC, "createdAt")));
+
+		assertEquals(5, page.getContent().size());
+		assertEquals(5, page.getTotalElements());
+	}
+
+	private User persistUser(String username, Role role, User supervisor) {
+		User user = new User(username, username + "@example.com", "password", "First", "Last", role);
+		user.setSupervisor(supervisor);
+		entityManager.persist(user);
+		return user;
+	}
+}
@@ -0,0 +1,43 @@
+package com.studentporta.respository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The schema comes only from the Flyway scripts here; Hibernate fails startup if an entity does not match it
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=validate"
+})
+class SchemaMigrationTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void migrationsCreateTheCompositeIndexes() {
+		Integer indexes = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE LOWER(INDEX_NAME) IN " +
+						"('idx_documents_supervisor_created', 'idx_documents_student_created', " +
+						"'idx_evaluations_project_timestamp', 'idx_projects_faculty_status')",
+				Integer.class);
+		assertEquals(4, indexes);
+	}
+
+	@Test
+	void progressUpdateWeekIsUniquePerProject() {
+		jdbcTemplate.update("INSERT INTO users (id, username, email, password, first_name, last_name, role, token_version) " +
+				"VALUES (1, 'student', 'student@example.com', 'password', 'First', 'Last', 'STUDENT', 0)");
+		jdbcTemplate.update("INSERT INTO projects (id, title, description, status, student_id, progress) " +
+				"VALUES (1, 'Project', 'Description', 'PENDING', 1, 0)");
+		String insert = "INSERT INTO progress_updates (project_id, week_number, update_description, timestamp) " +
+				"VALUES (1, 3, 'Update', CURRENT_TIMESTAMP)";
+		jdbcTemplate.update(insert);
+
+		assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(insert));
+	}
+}
@@ -0,0 +1,232 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.DocumentBlob;
+import com.studentporta.respository.DocumentBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BlobStoreServiceTests {
+
+	@TempDir
+	Path tempDir;
+
+	private LocalDocumentStorage storage;
+	private BlobStoreService blobStore;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		storage = newStorage(tempDir.resolve("a"));
+		blobStore = newBlobStore(storage, tempDir.resolve("a"));
+	}
+
+	@Test
+	void compressibleContentIsStoredGzippedAndDecodesBack() throws Exception {
+		byte[] text = text(200_000);
+
+		DocumentBlob blob = blobStore.store(new ByteArrayInputStream(text), Long.MAX_VALUE, null);
+
+		assertEquals(BlobStoreService.CODEC_GZIP, blob.getCodec());
+		assertEquals(text.length, blob.getSize());
+		assertTrue(blob.getStoredSize() < text.length / 5);
+		assertEquals(blob.getStoredSize(), storage.stat(blob.getStorageKey()).orElseThrow().size());
+		try (InputStream in = BlobStoreService.decode(storage.open(blob.getStorageKey(), 0, blob.getStoredSize()),
+				blob.getCodec())) {
+			assertArrayEquals(text, in.readAllBytes());
+		}
+	}
+
+	@Test
+	void incompressibleContentIsStoredAsUploaded() throws Exception {
+		byte[] random = random(200_000);
+
+		DocumentBlob blob = blobStore.store(new ByteArrayInputStream(random), Long.MAX_VALUE, null);
+
+		assertNull(blob.getCodec());
+		assertEquals(random.length, blob.getStoredSize());
+		assertArrayEquals(random, read(storage, blob));
+	}
+
+	@Test
+	void smallFilesAreNotCompressed() throws Exception {
+		DocumentBlob blob = blobStore.store(new ByteArrayInputStream(text(1000)), Long.MAX_VALUE, null);
+
+		assertNull(blob.getCodec());
+	}
+
+	// Ranges on gzip cannot seek, so large files are kept as uploaded to keep resumed downloads cheap
+	@Test
+	void filesAboveTheSizeCapAreNotCompressed() throws Exception {
+		byte[] text = text(1_000_001);
+
+		DocumentBlob blob = blobStore.store(new ByteArrayInputStream(text), Long.MAX_VALUE, null);
+
+		assertNull(blob.getCodec());
+		assertEquals(text.length, blob.getStoredSize());
+	}
+
+	@Test
+	void incompressibleHeadSkipsCompressionAfterTheSample() throws Exception {
+		byte[] mixed = new byte[65_536 + 500_000];
+		System.arraycopy(random(65_536), 0, mixed, 0, 65_536);
+		System.arraycopy(text(500_000), 0, mixed, 65_536, 500_000);
+
+		DocumentBlob blob = blobStore.store(new ByteArrayInputStream(mixed), Long.MAX_VALUE, null);
+
+		assertNull(blob.getCodec());
+	}
+
+	// Two nodes committing the same bytes must write interchangeable objects under the shared key
+	@Test
+	void sameBytesProduceTheSameObjectOnEveryNode() throws Exception {
+		LocalDocumentStorage otherStorage = newStorage(tempDir.resolve("b"));
+		BlobStoreService otherNode = newBlobStore(otherStorage, tempDir.resolve("b"));
+		byte[] text = text(100_000);
+
+		DocumentBlob first = blobStore.store(new ByteArrayInputStream(text), Long.MAX_VALUE, null);
+		DocumentBlob second = otherNode.store(new ByteArrayInputStream(text), Long.MAX_VALUE, null);
+
+		assertEquals(first.getCodec(), second.getCodec());
+		assertArrayEquals(read(storage, first), read(otherStorage, second));
+	}
+
+	@Test
+	void declaredHashOfAStoredBlobOnlyAddsAReference() throws Exception {
+		byte[] text = text(100_000);
+		DocumentBlob first = blobStore.store(new ByteArrayInputStream(text), Long.MAX_VALUE, null);
+
+		DocumentBlob second = blobStore.store(new ByteArrayInputStream(text), Long.MAX_VALUE,
+				first.getSha256().toUpperCase());
+
+		assertEquals(first.getStorageKey(), second.getStorageKey());
+		assertEquals(2, (int) second.getRefCount());
+		assertStagingEmpty();
+	}
+
+	@Test
+	void bytesNotMatchingADeclaredStoredHashAreRejected() throws Exception {
+		DocumentBlob stored = blobStore.store(new ByteArrayInputStream(text(100_000)), Long.MAX_VALUE, null);
+
+		assertThrows(ContentHashMismatchException.class, () -> blobStore.store(
+				new ByteArrayInputStream(random(1000)), Long.MAX_VALUE, stored.getSha256()));
+
+		assertEquals(1, (int) stored.getRefCount());
+	}
+
+	@Test
+	void bytesNotMatchingADeclaredNewHashAreNotStored() throws Exception {
+		byte[] random = random(1000);
+
+		assertThrows(ContentHashMismatchException.class, () -> blobStore.store(
+				new ByteArrayInputStream(random), Long.MAX_VALUE, "0".repeat(64)));
+
+		assertTrue(storage.stat(BlobStoreService.keyFor(sha256(random))).isEmpty());
+		assertStagingEmpty();
+	}
+
+	@Test
+	void uploadsOverTheLimitAreRejectedWhileStreaming() throws Exception {
+		assertThrows(UploadTooLargeException.class, () -> blobStore.store(
+				new ByteArrayInputStream(random(10_000)), 4096, null));
+
+		assertStagingEmpty();
+	}
+
+	private static LocalDocumentStorage newStorage(Path root) throws IOException {
+		LocalDocumentStorage storage = new LocalDocumentStorage();
+		ReflectionTestUtils.setField(storage, "rootDir", root.toString());
+		storage.init();
+		return storage;
+	}
+
+	private static BlobStoreService newBlobStore(DocumentStorage storage, Path root) throws IOException {
+		Map<String, DocumentBlob> rows = new HashMap<>();
+		DocumentBlobRepository repository = mock(DocumentBlobRepository.class);
+		when(repository.existsBySha256(anyString())).thenAnswer(invocation -> rows.containsKey(invocation.getArgument(0)));
+		when(repository.findBySha256(anyString()))
+				.thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.getArgument(0))));
+		when(repository.incrementRefCount(anyString())).thenAnswer(invocation -> {
+			DocumentBlob blob = rows.get(invocation.getArgument(0));
+			if (blob == null) {
+				return 0;
+			}
+			blob.setRefCount(blob.getRefCount() + 1);
+			return 1;
+		});
+		when(repository.save(any(DocumentBlob.class))).thenAnswer(invocation -> {
+			DocumentBlob blob = invocation.getArgument(0);
+			rows.put(blob.getSha256(), blob);
+			return blob;
+		});
+
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+		BlobStoreService blobStore = new BlobStoreService();
+		ReflectionTestUtils.setField(blobStore, "blobRepository", repository);
+		ReflectionTestUtils.setField(blobStore, "transactionTemplate", new TransactionTemplate(transactionManager));
+		ReflectionTestUtils.setField(blobStore, "storage", storage);
+		ReflectionTestUtils.setField(blobStore, "stagingRoot", root.resolve("tmp").toString());
+		ReflectionTestUtils.setField(blobStore, "compressionEnabled", true);
+		ReflectionTestUtils.setField(blobStore, "compressionSampleBytes", 65_536);
+		ReflectionTestUtils.setField(blobStore, "compressionMinBytes", 4096L);
+		ReflectionTestUtils.setField(blobStore, "compressionMaxBytes", 1_000_000L);
+		ReflectionTestUtils.setField(blobStore, "minSavingsPercent", 10);
+		blobStore.init();
+		return blobStore;
+	}
+
+	private static byte[] read(DocumentStorage storage, DocumentBlob blob) throws IOException {
+		try (InputStream in = storage.open(blob.getStorageKey(), 0, blob.getStoredSize())) {
+			return in.readAllBytes();
+		}
+	}
+
+	private void assertStagingEmpty() throws IOException {
+		try (Stream<Path> files = Files.list(tempDir.resolve("a/tmp"))) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	private static String sha256(byte[] bytes) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+	}
+
+	private static byte[] text(int length) {
+		StringBuilder text = new StringBuilder();
+		for (int line = 0; text.length() < length; line++) {
+			text.append("Week ").append(line).append(": progress update for the student portal project\n");
+		}
+		return text.substring(0, length).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] random(int length) {
+		byte[] bytes = new byte[length];
+		new Random(42).nextBytes(bytes);
+		return bytes;
+	}
+}
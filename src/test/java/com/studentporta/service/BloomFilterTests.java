@@ -0,0 +1,40 @@
+package com.studentporta.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTests {
+
+	@Test
+	void neverReturnsFalseNegatives() {
+		BloomFilter filter = new BloomFilter(1000, 0.01);
+		String[] values = new String[1000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = UUID.randomUUID().toString();
+			filter.put(values[i]);
+		}
+
+		for (String value : values) {
+			assertTrue(filter.mightContain(value));
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		BloomFilter filter = new BloomFilter(1000, 0.01);
+		for (int i = 0; i < 1000; i++) {
+			filter.put(UUID.randomUUID().toString());
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (filter.mightContain(UUID.randomUUID().toString())) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+	}
+}
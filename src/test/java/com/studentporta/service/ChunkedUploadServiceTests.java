@@ -0,0 +1,211 @@
+package com.studentporta.service;
+
+import com.studentporta.dto.ChunkedUploadRequest;
+import com.studentporta.dto.ChunkedUploadStatus;
+import com.studentporta.dto.DocumentDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ChunkedUploadServiceTests {
+
+	private static final String CONTENT = "0123456789abcdefghij-tail";
+
+	@TempDir
+	Path tempDir;
+
+	private ChunkedUploadService service;
+	private DocumentService documentService;
+	private AtomicReference<String> adopted;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		service = new ChunkedUploadService();
+		documentService = mock(DocumentService.class);
+		BlobStoreService blobStoreService = mock(BlobStoreService.class);
+		when(blobStoreService.newStagingFile()).thenAnswer(invocation -> tempDir.resolve(UUID.randomUUID().toString()));
+		when(blobStoreService.getStagingDir()).thenReturn(tempDir);
+		adopted = new AtomicReference<>();
+		// Like the blob store, reading the staged file consumes it
+		when(documentService.createDocumentFromStagedFile(any(), anyString(), any(), anyString(), any(), any(), any()))
+				.thenAnswer(invocation -> {
+					Path staged = invocation.getArgument(0);
+					adopted.set(Files.readString(staged, StandardCharsets.UTF_8));
+					Files.delete(staged);
+					return new DocumentDTO();
+				});
+		ReflectionTestUtils.setField(service, "documentService", documentService);
+		ReflectionTestUtils.setField(service, "blobStoreService", blobStoreService);
+		ReflectionTestUtils.setField(service, "chunkSize", 10L);
+		ReflectionTestUtils.setField(service, "sessionTtlMs", 60_000L);
+		ReflectionTestUtils.setField(service, "maxSessionsPerUser", 2);
+	}
+
+	@Test
+	void assemblesChunksSentOutOfOrder() throws Exception {
+		ChunkedUploadStatus started = service.start(request(), "alice", 1024);
+		assertEquals(3, started.getChunkCount());
+
+		writeChunk(started, 2);
+		writeChunk(started, 0);
+		writeChunk(started, 1);
+		service.complete(started.getUploadId(), "alice");
+
+		assertEquals(CONTENT, adopted.get());
+		assertStagingDirEmpty();
+	}
+
+	@Test
+	void assemblesChunksSentInParallel() throws Exception {
+		ChunkedUploadStatus started = service.start(request(), "alice", 1024);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<ChunkedUploadStatus>> writes = Stream.of(0, 1, 2)
+					.map(index -> executor.submit(() -> writeChunk(started, index)))
+					.toList();
+			for (Future<ChunkedUploadStatus> write : writes) {
+				write.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(3, service.status(started.getUploadId(), "alice").getReceivedChunks());
+		service.complete(started.getUploadId(), "alice");
+		assertEquals(CONTENT, adopted.get());
+	}
+
+	@Test
+	void rejectsChunksOfTheWrongLength() throws Exception {
+		ChunkedUploadStatus started = service.start(request(), "alice", 1024);
+
+		assertThrows(IllegalArgumentException.class, () -> service.writeChunk(started.getUploadId(), "alice", 0,
+				new ByteArrayInputStream("short".getBytes(StandardCharsets.UTF_8))));
+		assertThrows(IllegalArgumentException.class, () -> service.writeChunk(started.getUploadId(), "alice", 2,
+				new ByteArrayInputStream("-tail-and-more".getBytes(StandardCharsets.UTF_8))));
+
+		assertEquals(List.of(0, 1, 2), service.status(started.getUploadId(), "alice").getMissingChunks());
+	}
+
+	@Test
+	void completeWithMissingChunksLeavesTheSessionOpen() throws Exception {
+		ChunkedUploadStatus started = service.start(request(), "alice", 1024);
+		writeChunk(started, 0);
+		writeChunk(started, 2);
+
+		IllegalStateException e = assertThrows(IllegalStateException.class,
+				() -> service.complete(started.getUploadId(), "alice"));
+		assertTrue(e.getMessage().contains("[1]"));
+
+		writeChunk(started, 1);
+		service.complete(started.getUploadId(), "alice");
+		assertEquals(CONTENT, adopted.get());
+	}
+
+	@Test
+	void failedCompleteKeepsTheUploadForARetry() throws Exception {
+		ChunkedUploadStatus started = service.start(request(), "alice", 1024);
+		writeChunk(started, 0);
+		writeChunk(started, 1);
+		writeChunk(started, 2);
+		doThrow(new RuntimeException("Supervisor not found"))
+				.when(documentService).createDocumentFromStagedFile(any(), anyString(), any(), anyString(), any(), any(), any());
+
+		assertThrows(RuntimeException.class, () -> service.complete(started.getUploadId(), "alice"));
+		assertNull(adopted.get());
+		assertEquals(0, service.status(started.getUploadId(), "alice").getMissingChunks().size());
+		// The copy handed to the failed attempt is cleaned up; only the session's own file remains
+		try (Stream<Path> files = Files.list(tempDir)) {
+			assertEquals(1, files.count());
+		}
+
+		reset(documentService);
+		when(documentService.createDocumentFromStagedFile(any(), anyString(), any(), anyString(), any(), any(), any()))
+				.thenAnswer(invocation -> {
+					adopted.set(Files.readString(invocation.<Path>getArgument(0), StandardCharsets.UTF_8));
+					return new DocumentDTO();
+				});
+		service.complete(started.getUploadId(), "alice");
+		assertEquals(CONTENT, adopted.get());
+		assertThrows(RuntimeException.class, () -> service.status(started.getUploadId(), "alice"));
+	}
+
+	@Test
+	void limitsOpenSessionsPerUser() throws Exception {
+		ChunkedUploadStatus first = service.start(request(), "alice", 1024);
+		service.start(request(), "alice", 1024);
+
+		assertThrows(IllegalStateException.class, () -> service.start(request(), "alice", 1024));
+		service.start(request(), "bob", 1024);
+
+		service.abort(first.getUploadId(), "alice");
+		service.start(request(), "alice", 1024);
+	}
+
+	@Test
+	void rejectsUploadsOverTheLimitBeforeAllocating() throws Exception {
+		assertThrows(UploadTooLargeException.class, () -> service.start(request(), "alice", 10));
+		assertStagingDirEmpty();
+	}
+
+	@Test
+	void sweepRemovesOldStagingFilesNoSessionOwns() throws Exception {
+		ChunkedUploadStatus started = service.start(request(), "alice", 1024);
+		Path sessionFile;
+		try (Stream<Path> files = Files.list(tempDir)) {
+			sessionFile = files.findFirst().orElseThrow();
+		}
+		Path orphan = Files.writeString(tempDir.resolve("left-by-a-restart"), "partial");
+		Path recent = Files.writeString(tempDir.resolve("upload-in-progress"), "partial");
+		FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 120_000);
+		Files.setLastModifiedTime(orphan, old);
+		Files.setLastModifiedTime(sessionFile, old);
+
+		service.expireStaleSessions();
+
+		assertFalse(Files.exists(orphan));
+		assertTrue(Files.exists(recent));
+		assertTrue(Files.exists(sessionFile));
+		writeChunk(started, 0);
+	}
+
+	private ChunkedUploadStatus writeChunk(ChunkedUploadStatus started, int index) throws Exception {
+		String chunk = CONTENT.substring(index * 10, Math.min(CONTENT.length(), index * 10 + 10));
+		return service.writeChunk(started.getUploadId(), "alice", index,
+				new ByteArrayInputStream(chunk.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private void assertStagingDirEmpty() throws Exception {
+		try (Stream<Path> files = Files.list(tempDir)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	private static ChunkedUploadRequest request() {
+		ChunkedUploadRequest request = new ChunkedUploadRequest();
+		request.setFileName("thesis.pdf");
+		request.setTotalSize((long) CONTENT.length());
+		request.setTitle("Thesis");
+		request.setSupervisorId(1L);
+		return request;
+	}
+}
@@ -0,0 +1,133 @@
+package com.studentporta.service;
+
+import com.studentporta.dto.UserDTO;
+import com.studentporta.entity.Project;
+import com.studentporta.entity.ProjectStatus;
+import com.studentporta.entity.Role;
+import com.studentporta.entity.User;
+import com.studentporta.respository.ProjectRepository;
+import com.studentporta.respository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: the counters only move when the services' own transactions commit
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({DashboardStatsService.class, ProjectService.class, UserService.class, PaginationSettings.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardStatsServiceTests {
+
+	@Autowired
+	private DashboardStatsService dashboardStatsService;
+
+	@Autowired
+	private ProjectService projectService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockitoBean
+	private PasswordHashingService passwordHashingService;
+
+	private User student;
+	private Project project;
+
+	@BeforeEach
+	void setUp() {
+		User supervisor = userRepository.save(new User("super", "super@example.com", "password", "First", "Last",
+				Role.SUPERVISOR));
+		student = userRepository.save(new User("student", "student@example.com", "password", "First", "Last",
+				Role.STUDENT));
+		project = projectRepository.save(new Project("Project", "Objective", "Description", student, supervisor));
+		dashboardStatsService.reconcile();
+	}
+
+	@AfterEach
+	void tearDown() {
+		projectRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void statusChangeMovesTheCountersOnCommit() {
+		assertEquals(1L, stats().get("pendingProjects"));
+
+		projectService.updateProjectStatus(project.getId(), ProjectStatus.COMPLETED);
+
+		assertEquals(0L, stats().get("pendingProjects"));
+		assertEquals(1L, stats().get("completedProjects"));
+		assertEquals(1L, stats().get("totalProjects"));
+	}
+
+	@Test
+	void statusChangeLeavesTheCountersAloneOnRollback() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			projectService.updateProjectStatus(project.getId(), ProjectStatus.COMPLETED);
+			status.setRollbackOnly();
+		});
+
+		assertEquals(ProjectStatus.PENDING, projectRepository.findById(project.getId()).orElseThrow().getStatus());
+		assertEquals(1L, stats().get("pendingProjects"));
+		assertEquals(0L, stats().get("completedProjects"));
+	}
+
+	@Test
+	void roleChangeMovesTheCountersOnCommit() {
+		userService.updateUser(student.getId(), asSupervisor(student));
+
+		assertEquals(0L, stats().get("totalStudents"));
+		assertEquals(2L, stats().get("totalFaculty"));
+	}
+
+	@Test
+	void roleChangeLeavesTheCountersAloneOnRollback() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			userService.updateUser(student.getId(), asSupervisor(student));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(Role.STUDENT, userRepository.findById(student.getId()).orElseThrow().getRole());
+		assertEquals(1L, stats().get("totalStudents"));
+		assertEquals(1L, stats().get("totalFaculty"));
+	}
+
+	@Test
+	void reconcileRepairsCountersAfterBulkChanges() {
+		projectRepository.deleteAll();
+		assertEquals(1L, stats().get("totalProjects"));
+
+		dashboardStatsService.reconcile();
+
+		assertEquals(0L, stats().get("totalProjects"));
+	}
+
+	private Map<String, Object> stats() {
+		return dashboardStatsService.getDashboardStats();
+	}
+
+	private static UserDTO asSupervisor(User user) {
+		return new UserDTO(user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName(),
+				Role.SUPERVISOR, null);
+	}
+}
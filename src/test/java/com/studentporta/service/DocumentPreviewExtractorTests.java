@@ -0,0 +1,110 @@
+package com.studentporta.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentPreviewExtractorTests {
+
+	@TempDir
+	Path tempDir;
+
+	private DocumentPreviewExtractor extractor;
+
+	@BeforeEach
+	void setUp() {
+		extractor = new DocumentPreviewExtractor();
+		ReflectionTestUtils.setField(extractor, "thumbnailWidth", 128);
+		ReflectionTestUtils.setField(extractor, "snippetLength", 40);
+	}
+
+	@Test
+	void extractsPdfPagesThumbnailAndText() throws Exception {
+		Path file = tempDir.resolve("thesis.pdf");
+		try (PDDocument document = new PDDocument()) {
+			for (int i = 0; i < 3; i++) {
+				PDPage page = new PDPage();
+				document.addPage(page);
+				try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+					content.beginText();
+					content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+					content.newLineAtOffset(72, 700);
+					content.showText("Chapter " + (i + 1) + " of the final year project report");
+					content.endText();
+				}
+			}
+			document.save(file.toFile());
+		}
+
+		DocumentPreviewExtractor.Extracted extracted =
+				extractor.extract(file, "thesis.pdf", "application/pdf").orElseThrow();
+
+		assertEquals(3, extracted.pageCount());
+		assertTrue(extracted.textSnippet().startsWith("Chapter 1 of the final year"));
+		assertTrue(extracted.textSnippet().length() <= 41);
+		BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(extracted.thumbnailPng()));
+		assertEquals(128, thumbnail.getWidth());
+	}
+
+	@Test
+	void rendersDegenerateTallPagesWithinTheThumbnailBounds() throws Exception {
+		Path file = tempDir.resolve("strip.pdf");
+		try (PDDocument document = new PDDocument()) {
+			document.addPage(new PDPage(new PDRectangle(1, 14_400)));
+			document.save(file.toFile());
+		}
+
+		DocumentPreviewExtractor.Extracted extracted =
+				extractor.extract(file, "strip.pdf", "application/pdf").orElseThrow();
+
+		BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(extracted.thumbnailPng()));
+		assertTrue(thumbnail.getWidth() <= 128);
+		assertTrue(thumbnail.getHeight() <= 128 * 4);
+	}
+
+	@Test
+	void extractsDocxPageCountAndParagraphText() throws Exception {
+		Path file = tempDir.resolve("proposal.docx");
+		try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+			zip.putNextEntry(new ZipEntry("docProps/app.xml"));
+			zip.write("<Properties><Pages>4</Pages></Properties>".getBytes(StandardCharsets.UTF_8));
+			zip.putNextEntry(new ZipEntry("word/document.xml"));
+			zip.write(("<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"><w:body>"
+					+ "<w:p><w:r><w:t>Project</w:t></w:r><w:r><w:t xml:space=\"preserve\"> proposal</w:t></w:r></w:p>"
+					+ "<w:p><w:r><w:t>Background</w:t></w:r></w:p></w:body></w:document>").getBytes(StandardCharsets.UTF_8));
+			zip.closeEntry();
+		}
+
+		DocumentPreviewExtractor.Extracted extracted = extractor.extract(file, "proposal.docx", null).orElseThrow();
+
+		assertEquals(4, extracted.pageCount());
+		assertEquals("Project proposal Background", extracted.textSnippet());
+		assertNull(extracted.thumbnailPng());
+	}
+
+	@Test
+	void skipsUnsupportedTypes() throws Exception {
+		Path file = Files.write(tempDir.resolve("data.bin"), new byte[] {1, 2, 3});
+
+		assertTrue(extractor.extract(file, "data.bin", "application/octet-stream").isEmpty());
+	}
+}
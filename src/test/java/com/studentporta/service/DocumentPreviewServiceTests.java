@@ -0,0 +1,150 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.DocumentBlob;
+import com.studentporta.entity.DocumentPreview;
+import com.studentporta.entity.PreviewStatus;
+import com.studentporta.respository.DocumentBlobRepository;
+import com.studentporta.respository.DocumentPreviewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Not transactional: workers and claims commit on their own, as they do in production
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DocumentPreviewServiceTests {
+
+	private static final String SHA = "ab" + "1".repeat(62);
+
+	@TempDir
+	Path tempDir;
+
+	@Autowired
+	private DocumentPreviewRepository previewRepository;
+
+	@Autowired
+	private DocumentBlobRepository blobRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private DocumentPreviewExtractor extractor;
+	private DocumentPreviewService previewService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		LocalDocumentStorage storage = new LocalDocumentStorage();
+		ReflectionTestUtils.setField(storage, "rootDir", tempDir.toString());
+		storage.init();
+		Path object = tempDir.resolve(BlobStoreService.keyFor(SHA));
+		Files.createDirectories(object.getParent());
+		Files.writeString(object, "%PDF-1.7 not really");
+		blobRepository.save(new DocumentBlob(SHA, BlobStoreService.keyFor(SHA), 19L, null, 19L));
+
+		extractor = mock(DocumentPreviewExtractor.class);
+		when(extractor.extract(any(), anyString(), anyString()))
+				.thenReturn(Optional.of(new DocumentPreviewExtractor.Extracted(3, "snippet", new byte[] {1, 2, 3})));
+
+		previewService = new DocumentPreviewService();
+		ReflectionTestUtils.setField(previewService, "previewRepository", previewRepository);
+		ReflectionTestUtils.setField(previewService, "blobRepository", blobRepository);
+		ReflectionTestUtils.setField(previewService, "extractor", extractor);
+		ReflectionTestUtils.setField(previewService, "storage", storage);
+		ReflectionTestUtils.setField(previewService, "transactionTemplate", new TransactionTemplate(transactionManager));
+		ReflectionTestUtils.setField(previewService, "queueCapacity", 10);
+		ReflectionTestUtils.setField(previewService, "maxSourceBytes", 1_000_000L);
+		ReflectionTestUtils.setField(previewService, "retryAfterMs", 60_000L);
+		// Runs each submitted preview on the calling thread so the outcome can be asserted directly
+		ReflectionTestUtils.setField(previewService, "executor", new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(10)) {
+			@Override
+			public void execute(Runnable command) {
+				command.run();
+			}
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		previewRepository.deleteAll();
+		blobRepository.deleteAll();
+	}
+
+	@Test
+	void documentsWithTheSameBytesShareOnePreview() throws Exception {
+		previewService.onDocumentStored(new DocumentStoredEvent(1L, SHA, "report.pdf", "application/pdf"));
+		previewService.onDocumentStored(new DocumentStoredEvent(2L, SHA, "copy.pdf", "application/pdf"));
+
+		assertEquals(1, previewRepository.count());
+		DocumentPreview preview = previewRepository.findBySha256(SHA).orElseThrow();
+		assertEquals(PreviewStatus.READY, preview.getStatus());
+		assertEquals(3, preview.getPageCount());
+		assertEquals("report.pdf", preview.getSourceName());
+		verify(extractor, times(1)).extract(any(), anyString(), anyString());
+	}
+
+	@Test
+	void onlyOneWorkerClaimsAPreviewUntilItGoesStale() {
+		previewRepository.save(new DocumentPreview(SHA, "report.pdf", "application/pdf"));
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		LocalDateTime now = LocalDateTime.now();
+
+		assertEquals(1, (int) tx.execute(status -> previewRepository.claim(SHA, now, now.minusMinutes(1))));
+		assertEquals(0, (int) tx.execute(status -> previewRepository.claim(SHA, now, now.minusMinutes(1))));
+		// The first worker has not reported back by the stale cutoff
+		assertEquals(1, (int) tx.execute(status -> previewRepository.claim(SHA, now.plusMinutes(5), now.plusMinutes(1))));
+	}
+
+	@Test
+	void readyPreviewIsNotRegenerated() throws Exception {
+		DocumentPreview preview = new DocumentPreview(SHA, "report.pdf", "application/pdf");
+		preview.setStatus(PreviewStatus.READY);
+		previewRepository.save(preview);
+
+		previewService.generate(SHA);
+
+		verify(extractor, never()).extract(any(), anyString(), anyString());
+	}
+
+	@Test
+	void sweepRetriesStalePreviewsAndDropsThoseOfDeletedFiles() throws Exception {
+		DocumentPreview stale = new DocumentPreview(SHA, "report.pdf", "application/pdf");
+		stale.setUpdatedAt(LocalDateTime.now().minusHours(1));
+		previewRepository.save(stale);
+		DocumentPreview fresh = new DocumentPreview(SHA.replace('1', '2'), "other.pdf", "application/pdf");
+		previewRepository.save(fresh);
+		String orphan = "cd" + "3".repeat(62);
+		previewRepository.save(new DocumentPreview(orphan, "gone.pdf", "application/pdf"));
+
+		previewService.sweep();
+
+		assertEquals(PreviewStatus.READY, previewRepository.findBySha256(SHA).orElseThrow().getStatus());
+		assertFalse(previewRepository.existsBySha256(orphan));
+		verify(extractor, times(1)).extract(any(), anyString(), anyString());
+	}
+}
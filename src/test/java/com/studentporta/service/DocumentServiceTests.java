@@ -0,0 +1,138 @@
+package com.studentporta.service;
+
+import com.studentporta.dto.DocumentDTO;
+import com.studentporta.entity.Document;
+import com.studentporta.entity.Role;
+import com.studentporta.entity.User;
+import com.studentporta.respository.DocumentRepository;
+import com.studentporta.respository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentServiceTests {
+
+	private static final String SHA = "ab" + "0".repeat(62);
+
+	@TempDir
+	Path tempDir;
+
+	private DocumentRepository documentRepository;
+	private BlobStoreService blobStoreService;
+	private UserRepository userRepository;
+	private DocumentService documentService;
+
+	@BeforeEach
+	void setUp() {
+		documentRepository = mock(DocumentRepository.class);
+		blobStoreService = mock(BlobStoreService.class);
+		userRepository = mock(UserRepository.class);
+		PaginationSettings paginationSettings = new PaginationSettings();
+		ReflectionTestUtils.setField(paginationSettings, "defaultPageSize", 100);
+		ReflectionTestUtils.setField(paginationSettings, "maxPageSize", 500);
+		documentService = new DocumentService();
+		ReflectionTestUtils.setField(documentService, "documentRepository", documentRepository);
+		ReflectionTestUtils.setField(documentService, "blobStoreService", blobStoreService);
+		ReflectionTestUtils.setField(documentService, "userRepository", userRepository);
+		ReflectionTestUtils.setField(documentService, "paginationSettings", paginationSettings);
+		// Stands in for the @Transactional boundary
+		TransactionSynchronizationManager.initSynchronization();
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	@Test
+	void deletingBlobBackedDocumentReleasesItsReferenceInTheTransaction() {
+		givenDocument(BlobStoreService.keyFor(SHA));
+		when(blobStoreService.releaseInTransaction(SHA)).thenReturn(true);
+
+		documentService.deleteDocument(1L);
+
+		verify(blobStoreService).releaseInTransaction(SHA);
+		assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+	}
+
+	@Test
+	void documentWithHashButPrivateFileKeepsOtherDocumentsBlob() throws Exception {
+		Path own = Files.writeString(tempDir.resolve("uploads-documents-report.pdf"), "private copy");
+		givenDocument(own.toString());
+
+		documentService.deleteDocument(1L);
+
+		verify(blobStoreService, never()).releaseInTransaction(anyString());
+		verify(blobStoreService, never()).release(anyString());
+		assertTrue(Files.exists(own), "file must survive until the row delete commits");
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		assertFalse(Files.exists(own));
+	}
+
+	@Test
+	void rowSavedWithResolvedBlobPathCountsAsBlobBacked() {
+		givenDocument("uploads/blobs/" + BlobStoreService.keyFor(SHA));
+		when(blobStoreService.releaseInTransaction(SHA)).thenReturn(true);
+
+		documentService.deleteDocument(1L);
+
+		verify(blobStoreService).releaseInTransaction(SHA);
+	}
+
+	@Test
+	void studentFeedWithoutPagingParametersIsNotTruncated() {
+		when(documentRepository.findFirstStudentFeedPage(eq(5L), any(Pageable.class))).thenReturn(List.of(new DocumentDTO()));
+
+		documentService.getDocumentsForStudentPage(5L, null, null);
+
+		ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+		verify(documentRepository).findFirstStudentFeedPage(eq(5L), page.capture());
+		assertTrue(page.getValue().getPageSize() > 500);
+		verify(userRepository, never()).existsById(any());
+	}
+
+	@Test
+	void unknownStudentIsStillAnError() {
+		when(documentRepository.findFirstStudentFeedPage(eq(5L), any(Pageable.class))).thenReturn(List.of());
+		when(userRepository.existsById(5L)).thenReturn(false);
+
+		RuntimeException error = assertThrows(RuntimeException.class,
+				() -> documentService.getDocumentsForStudentPage(5L, null, null));
+		assertEquals("Student not found", error.getMessage());
+	}
+
+	@Test
+	void studentWithoutDocumentsGetsAnEmptyFeed() {
+		when(documentRepository.findFirstStudentFeedPage(eq(5L), any(Pageable.class))).thenReturn(List.of());
+		when(userRepository.existsById(5L)).thenReturn(true);
+
+		assertTrue(documentService.getDocumentsForStudentPage(5L, null, 20).getItems().isEmpty());
+	}
+
+	private void givenDocument(String filePath) {
+		User supervisor = new User("super", "super@example.com", "password", "First", "Last", Role.SUPERVISOR);
+		Document document = new Document("Report", null, filePath, "report.pdf", 12L, "application/pdf", supervisor, null);
+		document.setSha256(SHA);
+		when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+	}
+}
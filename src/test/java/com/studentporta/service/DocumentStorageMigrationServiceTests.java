@@ -0,0 +1,151 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.DocumentBlob;
+import com.studentporta.respository.DocumentBlobRepository;
+import com.studentporta.respository.DocumentFileView;
+import com.studentporta.respository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DocumentStorageMigrationServiceTests {
+
+	private static final String SHA = "ab" + "cd" + "0".repeat(60);
+
+	@TempDir
+	Path tempDir;
+
+	private DocumentStorageMigrationService service;
+	private DocumentRepository documentRepository;
+	private DocumentBlobRepository blobRepository;
+	private BlobStoreService blobStoreService;
+	private DocumentBlob blob;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		service = new DocumentStorageMigrationService();
+		documentRepository = mock(DocumentRepository.class);
+		blobRepository = mock(DocumentBlobRepository.class);
+		blobStoreService = mock(BlobStoreService.class);
+		when(blobStoreService.newStagingFile()).thenReturn(tempDir.resolve("staged"));
+		blob = new DocumentBlob(SHA, BlobStoreService.keyFor(SHA), 5L, null, 5L);
+		// Like the blob store, adopting consumes the staged file
+		when(blobStoreService.adopt(any())).thenAnswer(invocation -> {
+			Files.delete(invocation.<Path>getArgument(0));
+			return blob;
+		});
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		ReflectionTestUtils.setField(service, "documentRepository", documentRepository);
+		ReflectionTestUtils.setField(service, "blobRepository", blobRepository);
+		ReflectionTestUtils.setField(service, "blobStoreService", blobStoreService);
+		ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(transactionManager));
+		ReflectionTestUtils.setField(service, "batchSize", 10);
+	}
+
+	@Test
+	void movesLegacyFileIntoTheBlobStoreAndDeletesIt() throws Exception {
+		Path legacy = Files.writeString(tempDir.resolve("legacy.pdf"), "hello", StandardCharsets.UTF_8);
+		givenDocuments(view(1L, legacy.toString(), null));
+		when(documentRepository.relocateFile(1L, legacy.toString(), blob.getStorageKey(), SHA, null)).thenReturn(1);
+
+		Map<String, Object> stats = runMigration();
+
+		assertFalse(Files.exists(legacy));
+		assertEquals(1L, stats.get("migrated"));
+		assertEquals(5L, stats.get("bytesMoved"));
+		verify(blobStoreService, never()).release(anyString());
+	}
+
+	@Test
+	void relinksRowsHoldingTheResolvedPathOfAnExistingBlob() throws Exception {
+		String resolved = "/var/uploads/" + BlobStoreService.keyFor(SHA);
+		givenDocuments(view(1L, resolved, SHA));
+		when(blobRepository.findBySha256(SHA)).thenReturn(Optional.of(blob));
+		when(documentRepository.relocateFile(1L, resolved, blob.getStorageKey(), SHA, null)).thenReturn(1);
+
+		Map<String, Object> stats = runMigration();
+
+		assertEquals(1L, stats.get("relinked"));
+		assertEquals(0L, stats.get("migrated"));
+		verify(blobStoreService, never()).adopt(any());
+	}
+
+	@Test
+	void releasesTheBlobWhenTheRowChangedDuringTheCopy() throws Exception {
+		Path legacy = Files.writeString(tempDir.resolve("legacy.pdf"), "hello", StandardCharsets.UTF_8);
+		givenDocuments(view(1L, legacy.toString(), null));
+		when(documentRepository.relocateFile(anyLong(), anyString(), anyString(), anyString(), any())).thenReturn(0);
+
+		Map<String, Object> stats = runMigration();
+
+		verify(blobStoreService).release(SHA);
+		assertTrue(Files.exists(legacy));
+		assertEquals(0L, stats.get("migrated"));
+		assertEquals(0L, stats.get("failed"));
+	}
+
+	@Test
+	void releasesTheBlobWhenTheRowUpdateFails() throws Exception {
+		Path legacy = Files.writeString(tempDir.resolve("legacy.pdf"), "hello", StandardCharsets.UTF_8);
+		givenDocuments(view(1L, legacy.toString(), null));
+		when(documentRepository.relocateFile(anyLong(), anyString(), anyString(), anyString(), any()))
+				.thenThrow(new QueryTimeoutException("timeout"));
+
+		Map<String, Object> stats = runMigration();
+
+		verify(blobStoreService).release(SHA);
+		assertTrue(Files.exists(legacy));
+		assertEquals(1L, stats.get("failed"));
+	}
+
+	@Test
+	void countsMissingFilesAndLeavesTheRowAlone() throws Exception {
+		givenDocuments(view(1L, tempDir.resolve("gone.pdf").toString(), null));
+
+		Map<String, Object> stats = runMigration();
+
+		assertEquals(1L, stats.get("missingFiles"));
+		assertEquals(0L, stats.get("failed"));
+		verify(blobStoreService, never()).adopt(any());
+		verify(documentRepository, never()).relocateFile(anyLong(), anyString(), anyString(), anyString(), any());
+	}
+
+	private void givenDocuments(DocumentFileView... views) {
+		when(documentRepository.findUnmigratedFileViewsAfter(anyLong(), any()))
+				.thenReturn(List.of(views), Collections.emptyList());
+	}
+
+	// Runs the batch loop on the calling thread instead of the migration executor
+	private Map<String, Object> runMigration() {
+		ReflectionTestUtils.invokeMethod(service, "run");
+		return service.getStats();
+	}
+
+	private static DocumentFileView view(Long id, String filePath, String sha256) {
+		DocumentFileView view = mock(DocumentFileView.class);
+		when(view.getId()).thenReturn(id);
+		when(view.getFilePath()).thenReturn(filePath);
+		when(view.getSha256()).thenReturn(sha256);
+		return view;
+	}
+}
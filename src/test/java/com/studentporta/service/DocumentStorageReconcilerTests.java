@@ -0,0 +1,131 @@
+package com.studentporta.service;
+
+import com.studentporta.entity.DocumentBlob;
+import com.studentporta.respository.DocumentBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DocumentStorageReconcilerTests {
+
+	@TempDir
+	Path tempDir;
+
+	private final TreeMap<String, DocumentBlob> rows = new TreeMap<>();
+	// Rows inserted after the reconciler read the page covering them
+	private final Set<String> committedMeanwhile = new HashSet<>();
+	private LocalDocumentStorage storage;
+	private DocumentStorageReconciler reconciler;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		storage = new LocalDocumentStorage();
+		ReflectionTestUtils.setField(storage, "rootDir", tempDir.toString());
+		storage.init();
+
+		DocumentBlobRepository repository = mock(DocumentBlobRepository.class);
+		when(repository.findPageAfter(anyString(), any(Pageable.class))).thenAnswer(invocation -> {
+			String after = invocation.getArgument(0);
+			Pageable pageable = invocation.getArgument(1);
+			return rows.tailMap(after, false).values().stream().limit(pageable.getPageSize()).toList();
+		});
+		when(repository.existsByStorageKey(anyString()))
+				.thenAnswer(invocation -> rows.values().stream()
+						.anyMatch(blob -> blob.getStorageKey().equals(invocation.getArgument(0))));
+
+		when(repository.existsBySha256(anyString()))
+				.thenAnswer(invocation -> rows.containsKey(invocation.<String>getArgument(0))
+						|| committedMeanwhile.contains(invocation.<String>getArgument(0)));
+
+		BlobStoreService blobStoreService = new BlobStoreService();
+		ReflectionTestUtils.setField(blobStoreService, "blobRepository", repository);
+		ReflectionTestUtils.setField(blobStoreService, "storage", storage);
+
+		reconciler = new DocumentStorageReconciler();
+		ReflectionTestUtils.setField(reconciler, "storage", storage);
+		ReflectionTestUtils.setField(reconciler, "blobRepository", repository);
+		ReflectionTestUtils.setField(reconciler, "blobStoreService", blobStoreService);
+		ReflectionTestUtils.setField(reconciler, "deleteOrphans", true);
+		ReflectionTestUtils.setField(reconciler, "orphanMinAgeMs", 60_000L);
+		ReflectionTestUtils.setField(reconciler, "pageSize", 2);
+		ReflectionTestUtils.setField(reconciler, "maxItemsPerSecond", 0);
+	}
+
+	@Test
+	void findsOrphansAndMissingObjectsAcrossPages() throws Exception {
+		String kept1 = sha('1');
+		String kept2 = sha('5');
+		String missing = sha('7');
+		String oldOrphan = sha('3');
+		String freshOrphan = sha('9');
+		for (String sha : List.of(kept1, kept2, missing)) {
+			rows.put(sha, blob(sha));
+		}
+		for (String sha : List.of(kept1, kept2, oldOrphan, freshOrphan)) {
+			store(sha);
+		}
+		Path oldFile = storage.localPath(BlobStoreService.keyFor(oldOrphan)).orElseThrow();
+		Files.setLastModifiedTime(oldFile, FileTime.from(Instant.now().minusSeconds(3600)));
+
+		Map<String, Object> report = reconciler.reconcile();
+
+		assertEquals(4L, report.get("keysScanned"));
+		assertEquals(3L, report.get("rowsScanned"));
+		assertEquals(2L, report.get("orphans"));
+		assertEquals(1L, report.get("orphansDeleted"));
+		assertEquals(1L, report.get("missingObjects"));
+		assertEquals(List.of(BlobStoreService.keyFor(missing)), report.get("missingSample"));
+		assertFalse(Files.exists(oldFile));
+		assertTrue(storage.stat(BlobStoreService.keyFor(freshOrphan)).isPresent());
+		assertTrue(storage.stat(BlobStoreService.keyFor(kept1)).isPresent());
+	}
+
+	@Test
+	void keepsAnOrphanWhoseRowWasCommittedAfterThePageWasRead() throws Exception {
+		String sha = sha('3');
+		store(sha);
+		Path file = storage.localPath(BlobStoreService.keyFor(sha)).orElseThrow();
+		Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(3600)));
+		committedMeanwhile.add(sha);
+
+		Map<String, Object> report = reconciler.reconcile();
+
+		assertEquals(1L, report.get("orphans"));
+		assertEquals(0L, report.get("orphansDeleted"));
+		assertTrue(Files.exists(file));
+	}
+
+	private void store(String sha) throws Exception {
+		Path staged = Files.write(tempDir.resolve("staged"), sha.getBytes());
+		storage.put(BlobStoreService.keyFor(sha), staged);
+	}
+
+	private static DocumentBlob blob(String sha) {
+		DocumentBlob blob = new DocumentBlob(sha, BlobStoreService.keyFor(sha), 64L, null, 64L);
+		blob.setCreatedAt(LocalDateTime.now().minusDays(1));
+		return blob;
+	}
+
+	private static String sha(char c) {
+		return String.valueOf(c).repeat(64);
+	}
+}
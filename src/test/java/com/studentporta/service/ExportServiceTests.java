@@ -0,0 +1,141 @@
+package com.studentporta.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentporta.entity.Role;
+import com.studentporta.entity.User;
+import com.studentporta.respository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// clear-every is smaller than the row count, so the persistence context is cleared mid-export
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"export.clear-every=2"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ExportService.class, ProjectService.class, UserService.class, FeedbackService.class, PaginationSettings.class})
+class ExportServiceTests {
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@MockitoBean
+	private PasswordHashingService passwordHashingService;
+
+	@BeforeEach
+	void setUp() {
+		save("plain", "Ada", "Lovelace", "Engineering");
+		save("comma", "Smith, Jr.", "Doe", "Arts");
+		save("quote", "The \"Ace\"", "Doe", "Arts");
+		save("newline", "Two\nLines", "Doe", "Arts\r\nAnnex");
+		save("last", "Grace", "Hopper", "Science");
+	}
+
+	@Test
+	void ndjsonHasOneObjectPerLineForEveryRow() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long count = exportService.exportUsers(ExportFormat.NDJSON, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(5, count);
+		assertEquals(5, lines.length);
+		List<String> usernames = new ArrayList<>();
+		for (String line : lines) {
+			usernames.add(objectMapper.readTree(line).get("username").asText());
+		}
+		assertEquals(List.of("plain", "comma", "quote", "newline", "last"), usernames);
+		JsonNode newline = objectMapper.readTree(lines[3]);
+		assertEquals("Two\nLines", newline.get("firstName").asText());
+		assertEquals("STUDENT", newline.get("role").asText());
+	}
+
+	@Test
+	void csvQuotesCommasQuotesAndLineBreaks() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long count = exportService.exportUsers(ExportFormat.CSV, out);
+
+		String csv = out.toString(StandardCharsets.UTF_8);
+		assertTrue(csv.contains("\"Smith, Jr.\""));
+		assertTrue(csv.contains("\"The \"\"Ace\"\"\""));
+		assertTrue(csv.contains("\"Two\nLines\""));
+		assertTrue(csv.endsWith("\r\n"));
+
+		List<List<String>> records = parseCsv(csv);
+		assertEquals(5, count);
+		assertEquals(6, records.size());
+		List<String> header = records.get(0);
+		int username = header.indexOf("username");
+		int firstName = header.indexOf("firstName");
+		int faculty = header.indexOf("faculty");
+		assertEquals(List.of("plain", "comma", "quote", "newline", "last"),
+				records.subList(1, 6).stream().map(record -> record.get(username)).toList());
+		assertEquals("Smith, Jr.", records.get(2).get(firstName));
+		assertEquals("The \"Ace\"", records.get(3).get(firstName));
+		assertEquals("Two\nLines", records.get(4).get(firstName));
+		assertEquals("Arts\r\nAnnex", records.get(4).get(faculty));
+		assertEquals("Hopper", records.get(5).get(header.indexOf("lastName")));
+	}
+
+	private void save(String username, String firstName, String lastName, String faculty) {
+		User user = new User(username, username + "@example.com", "password", firstName, lastName, Role.STUDENT);
+		user.setFaculty(faculty);
+		userRepository.save(user);
+	}
+
+	// RFC 4180: fields separated by commas, records by CRLF, quoted fields may hold both and doubled quotes
+	private static List<List<String>> parseCsv(String csv) {
+		List<List<String>> records = new ArrayList<>();
+		List<String> record = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < csv.length(); i++) {
+			char c = csv.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				record.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+				record.add(field.toString());
+				field.setLength(0);
+				records.add(record);
+				record = new ArrayList<>();
+				i++;
+			} else {
+				field.append(c);
+			}
+		}
+		return records;
+	}
+}
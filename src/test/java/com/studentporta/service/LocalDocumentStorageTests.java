@@ -0,0 +1,69 @@
+package com.studentporta.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalDocumentStorageTests {
+
+	@TempDir
+	Path tempDir;
+
+	private LocalDocumentStorage storage;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		storage = new LocalDocumentStorage();
+		ReflectionTestUtils.setField(storage, "rootDir", tempDir.toString());
+		storage.init();
+	}
+
+	@Test
+	void movesStagedFileIntoShardAndReadsRanges() throws Exception {
+		Path staged = Files.writeString(tempDir.resolve("staged"), "0123456789", StandardCharsets.UTF_8);
+
+		storage.put("ab/cd/abcd", staged);
+
+		assertFalse(Files.exists(staged));
+		assertEquals(tempDir.resolve("ab/cd/abcd"), storage.localPath("ab/cd/abcd").orElseThrow());
+		assertEquals(10, storage.stat("ab/cd/abcd").orElseThrow().size());
+		try (InputStream in = storage.open("ab/cd/abcd", 3, 4)) {
+			assertEquals("3456", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+		storage.delete("ab/cd/abcd");
+		assertTrue(storage.stat("ab/cd/abcd").isEmpty());
+	}
+
+	@Test
+	void listsKeysInOrderAndSkipsStagingFiles() throws Exception {
+		for (String key : List.of("ff/00/ff00", "00/ab/00ab", "00/aa/00aa")) {
+			Path staged = Files.write(tempDir.resolve("staged"), new byte[] {1});
+			storage.put(key, staged);
+		}
+		Files.createDirectories(tempDir.resolve("tmp"));
+		Files.write(tempDir.resolve("tmp/upload"), new byte[] {1});
+
+		List<String> keys;
+		try (Stream<String> stream = storage.listKeys()) {
+			keys = stream.collect(Collectors.toList());
+		}
+
+		assertEquals(List.of("00/aa/00aa", "00/ab/00ab", "ff/00/ff00"), keys);
+	}
+
+	@Test
+	void rejectsKeysOutsideTheRoot() {
+		assertThrows(IllegalArgumentException.class, () -> storage.localPath("../escape"));
+	}
+}
@@ -0,0 +1,33 @@
+package com.studentporta.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginationSettingsTests {
+
+	private final PaginationSettings settings = new PaginationSettings();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(settings, "defaultPageSize", 100);
+		ReflectionTestUtils.setField(settings, "maxPageSize", 500);
+	}
+
+	@Test
+	void requestWithoutCursorOrLimitGetsTheWholeList() {
+		int limit = settings.resolveLimit(null, null);
+
+		assertTrue(limit > 1_000_000);
+		assertEquals(limit + 1, settings.probe(limit).getPageSize());
+	}
+
+	@Test
+	void pagedRequestsAreCapped() {
+		assertEquals(100, settings.resolveLimit("cursor", null));
+		assertEquals(20, settings.resolveLimit(null, 20));
+		assertEquals(500, settings.resolveLimit("cursor", 10_000));
+	}
+}
@@ -0,0 +1,236 @@
+package com.studentporta.service;
+
+import com.studentporta.controller.FileDownloadWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the S3 backend against a minimal in-process stand-in for an
+ * S3-compatible server (path-style PUT, ranged GET, HEAD, DELETE and
+ * paginated ListObjectsV2).
+ */
+class S3DocumentStorageTests {
+
+	private static final String BUCKET = "documents";
+	private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+	@TempDir
+	Path tempDir;
+
+	private final NavigableMap<String, byte[]> objects = new ConcurrentSkipListMap<>();
+	private final AtomicInteger listRequests = new AtomicInteger();
+	private HttpServer server;
+	private S3DocumentStorage storage;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+
+		storage = new S3DocumentStorage();
+		ReflectionTestUtils.setField(storage, "bucket", BUCKET);
+		ReflectionTestUtils.setField(storage, "endpoint", "http://127.0.0.1:" + server.getAddress().getPort());
+		ReflectionTestUtils.setField(storage, "region", "us-east-1");
+		ReflectionTestUtils.setField(storage, "accessKey", "minio");
+		ReflectionTestUtils.setField(storage, "secretKey", "minio-secret");
+		ReflectionTestUtils.setField(storage, "pathStyleAccess", true);
+		storage.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		storage.close();
+		server.stop(0);
+	}
+
+	@Test
+	void storesStatsAndDeletesObjects() throws Exception {
+		Path staged = Files.writeString(tempDir.resolve("staged"), "0123456789", StandardCharsets.UTF_8);
+
+		storage.put("ab/cd/abcd", staged);
+
+		assertFalse(Files.exists(staged));
+		assertArrayEquals("0123456789".getBytes(StandardCharsets.UTF_8), objects.get("ab/cd/abcd"));
+		DocumentStorage.ObjectInfo info = storage.stat("ab/cd/abcd").orElseThrow();
+		assertEquals(10, info.size());
+		assertTrue(storage.localPath("ab/cd/abcd").isEmpty());
+
+		storage.delete("ab/cd/abcd");
+
+		assertTrue(storage.stat("ab/cd/abcd").isEmpty());
+	}
+
+	@Test
+	void readsOnlyTheRequestedRange() throws Exception {
+		objects.put("ab/cd/abcd", "0123456789".getBytes(StandardCharsets.UTF_8));
+
+		try (InputStream in = storage.open("ab/cd/abcd", 2, 4)) {
+			assertEquals("2345", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void listsKeysInOrderAcrossPages() throws Exception {
+		for (String key : List.of("ff/00/ff00", "00/aa/00aa", "7c/01/7c01", "00/ab/00ab", "a0/b0/a0b0")) {
+			objects.put(key, new byte[] {1});
+		}
+
+		List<String> keys;
+		try (Stream<String> stream = storage.listKeys()) {
+			keys = stream.collect(Collectors.toList());
+		}
+
+		assertEquals(List.of("00/aa/00aa", "00/ab/00ab", "7c/01/7c01", "a0/b0/a0b0", "ff/00/ff00"), keys);
+		assertEquals(3, listRequests.get());
+	}
+
+	@Test
+	void streamsRangedDownloadFromBackend() throws Exception {
+		objects.put("ab/cd/abcd", "0123456789".getBytes(StandardCharsets.UTF_8));
+		FileDownloadWriter writer = new FileDownloadWriter();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("Range", "bytes=6-");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertTrue(writer.write(storage, "ab/cd/abcd", "1", "report.pdf", request, response));
+
+		assertEquals(206, response.getStatus());
+		assertEquals("6789", response.getContentAsString());
+		assertEquals("bytes 6-9/10", response.getHeader("Content-Range"));
+		assertFalse(writer.write(storage, "ab/cd/missing", "2", "gone.pdf",
+				new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse()));
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		String prefix = "/" + BUCKET + "/";
+		String key = path.length() > prefix.length() ? path.substring(prefix.length()) : "";
+		byte[] body = exchange.getRequestBody().readAllBytes();
+
+		switch (exchange.getRequestMethod()) {
+			case "PUT" -> {
+				objects.put(key, body);
+				exchange.getResponseHeaders().set("ETag", "\"" + key.hashCode() + "\"");
+				exchange.sendResponseHeaders(200, -1);
+			}
+			case "HEAD" -> {
+				byte[] object = objects.get(key);
+				if (object == null) {
+					exchange.sendResponseHeaders(404, -1);
+				} else {
+					exchange.getResponseHeaders().set("Content-Length", String.valueOf(object.length));
+					exchange.getResponseHeaders().set("Last-Modified", lastModified());
+					exchange.sendResponseHeaders(200, -1);
+				}
+			}
+			case "DELETE" -> {
+				objects.remove(key);
+				exchange.sendResponseHeaders(204, -1);
+			}
+			case "GET" -> {
+				if (key.isEmpty()) {
+					list(exchange);
+				} else {
+					get(exchange, key);
+				}
+			}
+			default -> exchange.sendResponseHeaders(405, -1);
+		}
+		exchange.close();
+	}
+
+	private void get(HttpExchange exchange, String key) throws IOException {
+		byte[] object = objects.get(key);
+		if (object == null) {
+			exchange.sendResponseHeaders(404, -1);
+			return;
+		}
+		int start = 0;
+		int end = object.length - 1;
+		int status = 200;
+		String range = exchange.getRequestHeaders().getFirst("Range");
+		if (range != null) {
+			Matcher matcher = RANGE.matcher(range);
+			assertTrue(matcher.matches(), "unexpected range " + range);
+			start = Integer.parseInt(matcher.group(1));
+			end = Math.min(end, Integer.parseInt(matcher.group(2)));
+			status = 206;
+			exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + object.length);
+		}
+		exchange.getResponseHeaders().set("Last-Modified", lastModified());
+		exchange.sendResponseHeaders(status, end - start + 1);
+		exchange.getResponseBody().write(object, start, end - start + 1);
+	}
+
+	// Two keys per page so that pagination is exercised
+	private void list(HttpExchange exchange) throws IOException {
+		listRequests.incrementAndGet();
+		Map<String, String> query = parseQuery(exchange.getRequestURI().getQuery());
+		String token = query.get("continuation-token");
+		NavigableMap<String, byte[]> remaining = token == null ? objects : objects.tailMap(token, false);
+		List<String> page = remaining.keySet().stream().limit(2).collect(Collectors.toList());
+		boolean truncated = remaining.size() > page.size();
+
+		StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+				.append("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+				.append("<Name>").append(BUCKET).append("</Name>")
+				.append("<KeyCount>").append(page.size()).append("</KeyCount>")
+				.append("<MaxKeys>2</MaxKeys>")
+				.append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+		for (String key : page) {
+			xml.append("<Contents><Key>").append(key).append("</Key><Size>")
+					.append(objects.get(key).length).append("</Size></Contents>");
+		}
+		if (truncated) {
+			xml.append("<NextContinuationToken>").append(page.get(page.size() - 1)).append("</NextContinuationToken>");
+		}
+		xml.append("</ListBucketResult>");
+
+		byte[] bytes = xml.toString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/xml");
+		exchange.sendResponseHeaders(200, bytes.length);
+		exchange.getResponseBody().write(bytes);
+	}
+
+	private static Map<String, String> parseQuery(String query) {
+		if (query == null) {
+			return Map.of();
+		}
+		return Stream.of(query.split("&"))
+				.map(pair -> pair.split("=", 2))
+				.collect(Collectors.toMap(pair -> pair[0], pair -> pair.length > 1 ? pair[1] : ""));
+	}
+
+	private static String lastModified() {
+		return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+	}
+}
@@ -0,0 +1,83 @@
+package com.studentporta.service;
+
+import com.studentporta.respository.RevokedTokenRepository;
+import com.studentporta.respository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTests {
+
+	private TokenRevocationService service;
+	private RevokedTokenRepository revokedTokenRepository;
+
+	@BeforeEach
+	void setUp() {
+		service = new TokenRevocationService();
+		revokedTokenRepository = mock(RevokedTokenRepository.class);
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findTokenVersions()).thenReturn(Collections.emptyList());
+		ReflectionTestUtils.setField(service, "revokedTokenRepository", revokedTokenRepository);
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+	}
+
+	@Test
+	void revocationDuringRebuildSurvivesTheFilterSwap() {
+		Claims claims = claims("jti-1", 60_000);
+		// The revoke lands after the table was read but before the new filter is published
+		when(revokedTokenRepository.findActiveJtis(any())).thenAnswer(invocation -> {
+			service.revoke(claims);
+			return Collections.emptyList();
+		});
+		when(revokedTokenRepository.existsByJti("jti-1")).thenReturn(false, true);
+
+		service.rebuild();
+
+		assertTrue(service.isRevoked(claims));
+	}
+
+	@Test
+	void pendingRevocationIsDroppedOnceTheTableHasIt() {
+		Claims claims = claims("jti-1", 60_000);
+		service.revoke(claims);
+		assertEquals(1, service.getStats().get("pendingRevocations"));
+
+		when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of("jti-1"));
+		service.rebuild();
+
+		assertEquals(0, service.getStats().get("pendingRevocations"));
+		when(revokedTokenRepository.existsByJti("jti-1")).thenReturn(true);
+		assertTrue(service.isRevoked(claims));
+	}
+
+	@Test
+	void expiredPendingRevocationIsDropped() {
+		service.revoke(claims("jti-1", -1_000));
+		when(revokedTokenRepository.findActiveJtis(any())).thenReturn(Collections.emptyList());
+
+		service.rebuild();
+
+		assertEquals(0, service.getStats().get("pendingRevocations"));
+		assertFalse(service.isRevoked(claims("jti-2", 60_000)));
+	}
+
+	private static Claims claims(String jti, long ttlMillis) {
+		return Jwts.claims()
+				.id(jti)
+				.subject("alice")
+				.add("uid", 1L)
+				.expiration(new Date(System.currentTimeMillis() + ttlMillis))
+				.build();
+	}
+}
@@ -0,0 +1,47 @@
+package com.studentporta.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadLimitsTests {
+
+	private UploadLimits uploadLimits;
+
+	@BeforeEach
+	void setUp() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("documents.upload.max-bytes.supervisor", "2000")
+				.withProperty("documents.upload.max-bytes.admin", "5000");
+		uploadLimits = new UploadLimits();
+		ReflectionTestUtils.setField(uploadLimits, "environment", environment);
+		ReflectionTestUtils.setField(uploadLimits, "defaultMaxBytes", 1000L);
+	}
+
+	@Test
+	void rolesWithoutALimitGetTheDefault() {
+		assertEquals(1000L, uploadLimits.maxBytesFor(AuthorityUtils.createAuthorityList("ROLE_STUDENT")));
+		assertEquals(1000L, uploadLimits.maxBytesFor(AuthorityUtils.NO_AUTHORITIES));
+	}
+
+	@Test
+	void roleLimitsApply() {
+		assertEquals(2000L, uploadLimits.maxBytesFor(AuthorityUtils.createAuthorityList("ROLE_SUPERVISOR")));
+		assertEquals(5000L, uploadLimits.maxBytesFor(AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+	}
+
+	@Test
+	void theLargestLimitAmongTheUsersRolesWins() {
+		assertEquals(5000L, uploadLimits.maxBytesFor(
+				AuthorityUtils.createAuthorityList("ROLE_STUDENT", "ROLE_ADMIN", "ROLE_SUPERVISOR")));
+	}
+
+	@Test
+	void authoritiesThatAreNotRolesAreIgnored() {
+		assertEquals(1000L, uploadLimits.maxBytesFor(AuthorityUtils.createAuthorityList("admin")));
+	}
+}